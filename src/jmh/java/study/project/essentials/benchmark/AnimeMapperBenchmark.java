@@ -0,0 +1,50 @@
+package study.project.essentials.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.mapper.AnimeMapper;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão das requisições em Anime pelo MapStruct, executada em todo POST/PUT (e por item nos lotes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimeMapperBenchmark {
+
+    private final AnimePostRequestBody animePostRequestBody = AnimePostRequestBody.builder()
+            .name("Hajime no Ippo")
+            .build();
+
+    private final AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder()
+            .id(1L)
+            .name("Hajime no Ippo 2")
+            .version(0L)
+            .build();
+
+    @Benchmark
+    public Anime postRequestBodyToAnime() {
+        return AnimeMapper.INSTANCE.toAnime(animePostRequestBody);
+    }
+
+    @Benchmark
+    public Anime putRequestBodyToAnime() {
+        return AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
+    }
+
+}
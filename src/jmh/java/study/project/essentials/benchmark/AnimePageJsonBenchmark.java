@@ -0,0 +1,81 @@
+package study.project.essentials.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.wrapper.PageableResponse;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Serialização da página do GET /animes (PageImpl) e leitura da mesma resposta como PageableResponse,
+ * como fazem os testes de integração e os clientes da api.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimePageJsonBenchmark {
+
+    private static final TypeReference<PageableResponse<Anime>> PAGEABLE_RESPONSE = new TypeReference<>() {};
+
+    // tamanho padrão do GET /animes e uma página grande
+    @Param({"20", "100"})
+    private int pageSize;
+
+    // mesma configuração de datas do ObjectMapper do spring boot
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private Page<Anime> page;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Anime> animes = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> Anime.builder()
+                        .id(id)
+                        .name("Hajime no Ippo " + id)
+                        .version(id % 3)
+                        .updatedAt(Instant.parse("2021-07-01T10:15:30Z").plusSeconds(id))
+                        .build())
+                .collect(Collectors.toList());
+        page = new PageImpl<>(animes, PageRequest.of(0, pageSize), 10_000);
+        json = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageableResponse<Anime> deserializePageableResponse() throws IOException {
+        return objectMapper.readValue(json, PAGEABLE_RESPONSE);
+    }
+
+}
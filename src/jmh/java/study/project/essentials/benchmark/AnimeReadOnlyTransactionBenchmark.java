@@ -0,0 +1,89 @@
+package study.project.essentials.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.project.essentials.EssentialsApplication;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.service.AnimeBatchService;
+import study.project.essentials.service.AnimeService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Página grande do AnimeService.listAll (aplicação completa sobre o h2 em memória) na transação somente leitura
+ * e dentro de uma transação de escrita, como era antes: entidades gerenciadas com a cópia do estado
+ * e dirty checking no commit. Use -prof gc para ver a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimeReadOnlyTransactionBenchmark {
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+    private TransactionTemplate readWriteTransaction;
+    private PageRequest page;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(EssentialsApplication.class)
+                // argumentos de linha de comando têm precedência sobre o application.yml (MySQL),
+                // o contexto web é necessário para o springdoc (hateoas), o tomcat sobe em uma porta livre
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:read-only-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.userName=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN");
+        animeService = context.getBean(AnimeService.class);
+        readWriteTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        page = PageRequest.of(0, pageSize);
+
+        List<AnimePostRequestBody> animes = IntStream.rangeClosed(1, pageSize)
+                .mapToObj(index -> AnimePostRequestBody.builder().name("Anime " + index).build())
+                .collect(Collectors.toList());
+        context.getBean(AnimeBatchService.class).saveAll(animes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Anime> readOnlyTransaction() {
+        return animeService.listAll(page);
+    }
+
+    // o listAll participa da transação de escrita externa
+    @Benchmark
+    public Page<Anime> readWriteTransaction() {
+        return readWriteTransaction.execute(status -> animeService.listAll(page));
+    }
+
+}
@@ -0,0 +1,44 @@
+package study.project.essentials.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import study.project.essentials.util.DateUtil;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o DateUtil antigo (DateTimeFormatter.ofPattern a cada chamada)
+ * com o formatter criado uma única vez. Use -prof gc para ver a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilBenchmark {
+
+    private final DateUtil dateUtil = new DateUtil();
+    private final LocalDateTime localDateTime = LocalDateTime.of(2021, 7, 1, 10, 15, 30);
+
+    // implementação anterior do DateUtil.formatLocalDateTimeToDatabaseStyle
+    @Benchmark
+    public String patternOnEveryCall() {
+        return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").format(localDateTime);
+    }
+
+    @Benchmark
+    public String formatLocalDateTimeToDatabaseStyle() {
+        return dateUtil.formatLocalDateTimeToDatabaseStyle(localDateTime);
+    }
+
+}
@@ -0,0 +1,88 @@
+package study.project.essentials.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import study.project.essentials.controller.AnimeController;
+import study.project.essentials.exception.BadRequestException;
+import study.project.essentials.handler.RestExceptionHandler;
+import study.project.essentials.requests.AnimePostRequestBody;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Respostas de erro do RestExceptionHandler: montagem dos detalhes e escrita do json,
+ * o caminho de toda requisição com anime inexistente ou campos inválidos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionDetailsBenchmark {
+
+    private final RestExceptionHandler restExceptionHandler = new RestExceptionHandler();
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final BadRequestException badRequestException = new BadRequestException("Anime not Found");
+
+    private MethodArgumentNotValidException methodArgumentNotValidException;
+    private WebRequest webRequest;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        // POST /animes com o nome vazio
+        AnimePostRequestBody animePostRequestBody = AnimePostRequestBody.builder().name("").build();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(animePostRequestBody, "animePostRequestBody");
+        bindingResult.addError(new FieldError("animePostRequestBody", "name", "The anime name cannot be empty"));
+
+        MethodParameter methodParameter = new MethodParameter(
+                AnimeController.class.getMethod("save", AnimePostRequestBody.class), 0);
+        methodArgumentNotValidException = new MethodArgumentNotValidException(methodParameter, bindingResult);
+        webRequest = new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+
+    @Benchmark
+    public ResponseEntity<?> badRequestDetails() {
+        return restExceptionHandler.handlerBadRequestException(badRequestException);
+    }
+
+    @Benchmark
+    public byte[] badRequestDetailsJson() throws Exception {
+        return objectMapper.writeValueAsBytes(restExceptionHandler.handlerBadRequestException(badRequestException).getBody());
+    }
+
+    @Benchmark
+    public ResponseEntity<?> validationDetails() throws Exception {
+        return restExceptionHandler.handleException(methodArgumentNotValidException, webRequest);
+    }
+
+    @Benchmark
+    public byte[] validationDetailsJson() throws Exception {
+        return objectMapper.writeValueAsBytes(restExceptionHandler.handleException(methodArgumentNotValidException, webRequest).getBody());
+    }
+
+}
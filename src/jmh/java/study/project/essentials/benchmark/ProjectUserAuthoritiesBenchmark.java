@@ -0,0 +1,70 @@
+package study.project.essentials.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import study.project.essentials.domain.ProjectUser;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compara o getAuthorities() antigo (split + new SimpleGrantedAuthority a cada chamada)
+ * com as autorizações convertidas uma única vez, simulando o hasRole("USER")/hasRole("ADMIN").
+ * Use -prof gc para ver a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectUserAuthoritiesBenchmark {
+
+    private static final SimpleGrantedAuthority ROLE_USER = new SimpleGrantedAuthority("ROLE_USER");
+    private static final SimpleGrantedAuthority ROLE_ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+
+    private static final String AUTHORITIES = "ROLE_ADMIN,ROLE_USER";
+
+    private ProjectUser projectUser;
+
+    @Setup
+    public void setUp() {
+        projectUser = ProjectUser.builder()
+                .name("Eduardo Mingoranca")
+                .username("Eduardo")
+                .authorities(AUTHORITIES)
+                .build();
+    }
+
+    // implementação anterior do ProjectUser.getAuthorities()
+    private static Collection<? extends GrantedAuthority> splitAuthorities(String authorities) {
+        return Arrays.stream(authorities.split(","))
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public boolean splitOnEveryCall() {
+        Collection<? extends GrantedAuthority> authorities = splitAuthorities(AUTHORITIES);
+        return authorities.contains(ROLE_USER) && authorities.contains(ROLE_ADMIN);
+    }
+
+    @Benchmark
+    public boolean parsedOnce() {
+        Collection<? extends GrantedAuthority> authorities = projectUser.getAuthorities();
+        return authorities.contains(ROLE_USER) && authorities.contains(ROLE_ADMIN);
+    }
+
+}
@@ -1,9 +1,21 @@
 package study.project.essentials;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 
-@SpringBootApplication
+/* a variante reativa (perfil maven reactive) é outra aplicação, ReactiveEssentialsApplication. No build do perfil o r2dbc
+   está no classpath e o ConnectionFactory dele desligaria o DataSource do jdbc */
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@ComponentScan(excludeFilters = {
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.REGEX, pattern = "study\\.project\\.essentials\\.reactive\\..*")
+})
 public class EssentialsApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,143 @@
+package study.project.essentials.client;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cliente da api de animes para outros serviços.
+ * Diferente do RestTemplate criado a cada chamada no SpringClient, as conexões ficam em um pool
+ * (keep-alive) e são reaproveitadas: o custo do tcp/tls é pago uma vez por conexão e não por requisição.
+ * As chamadas não bloqueiam a thread (Mono/Flux ou CompletableFuture nos métodos *Async).
+ * Criado pelo SpringClient ou, com essentials.client.anime.enabled, como bean pelo AnimeClientConfig.
+ */
+@Log4j2
+public class AnimeClient implements DisposableBean {
+    public static final String CONNECTION_POOL_NAME = "anime-client";
+
+    private final AnimeClientProperties properties;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    public AnimeClient(WebClient.Builder webClientBuilder, AnimeClientProperties properties) {
+        this.properties = properties;
+
+        AnimeClientProperties.Pool pool = properties.getPool();
+        // as métricas do pool (conexões ativas, ociosas e pendentes) são publicadas no micrometer
+        this.connectionProvider = ConnectionProvider.builder(CONNECTION_POOL_NAME)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getMaxPendingAcquires())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getMaxIdleTime())
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = configureProtocols(HttpClient.create(connectionProvider))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getTimeouts().getConnect().toMillis())
+                .responseTimeout(properties.getTimeouts().getResponse())
+                .keepAlive(true);
+
+        this.webClient = webClientBuilder
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeaders(headers -> {
+                    if (properties.getUsername() != null) {
+                        headers.setBasicAuth(properties.getUsername(), properties.getPassword());
+                    }
+                })
+                .build();
+
+        log.info("Anime client for '{}' with at most {} connections", properties.getBaseUrl(), pool.getMaxConnections());
+    }
+
+    /* http/2 multiplexa as requisições em poucas conexões, negociado via ALPN no handshake tls
+       (o servidor sem suporte responde em http/1.1). No http sem tls a conexão é http/1.1:
+       o upgrade h2c custa uma requisição extra e o servidor que o recusa descarta a conexão */
+    private HttpClient configureProtocols(HttpClient httpClient) {
+        if (properties.isHttp2() && properties.getBaseUrl().startsWith("https")) {
+            return httpClient.protocol(HttpProtocol.HTTP11, HttpProtocol.H2)
+                    .secure(spec -> spec.sslContext(Http2SslContextSpec.forClient()));
+        }
+        return httpClient.protocol(HttpProtocol.HTTP11);
+    }
+
+    public Mono<Anime> findById(long id) {
+        return webClient.get()
+                .uri("/animes/{id}", id)
+                .retrieve()
+                .bodyToMono(Anime.class);
+    }
+
+    public CompletableFuture<Anime> findByIdAsync(long id) {
+        return findById(id).toFuture();
+    }
+
+    // até batch.concurrency consultas simultâneas, os animes são devolvidos na ordem dos ids
+    public Flux<Anime> findByIds(Collection<Long> ids) {
+        return Flux.fromIterable(ids)
+                .flatMapSequential(this::findById, properties.getBatch().getConcurrency());
+    }
+
+    // os animes são emitidos conforme o array json é lido, sem esperar a resposta inteira
+    public Flux<Anime> listAll() {
+        return webClient.get()
+                .uri("/animes/all")
+                .retrieve()
+                .bodyToFlux(Anime.class);
+    }
+
+    public Mono<Anime> save(AnimePostRequestBody animePostRequestBody) {
+        return webClient.post()
+                .uri("/animes")
+                .bodyValue(animePostRequestBody)
+                .retrieve()
+                .bodyToMono(Anime.class);
+    }
+
+    // uma requisição ao POST /animes/batch a cada batch.size animes, enviadas uma depois da outra
+    public Flux<Anime> saveAll(List<AnimePostRequestBody> animePostRequestBodies) {
+        return Flux.fromIterable(animePostRequestBodies)
+                .buffer(properties.getBatch().getSize())
+                .concatMap(batch -> webClient.post()
+                        .uri("/animes/batch")
+                        .bodyValue(batch)
+                        .retrieve()
+                        .bodyToFlux(Anime.class));
+    }
+
+    public CompletableFuture<List<Anime>> saveAllAsync(List<AnimePostRequestBody> animePostRequestBodies) {
+        return saveAll(animePostRequestBodies).collectList().toFuture();
+    }
+
+    public Mono<Void> replace(AnimePutRequestBody animePutRequestBody) {
+        return webClient.put()
+                .uri("/animes/admin")
+                .bodyValue(animePutRequestBody)
+                .retrieve()
+                .bodyToMono(Void.class);
+    }
+
+    // fecha as conexões do pool
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+    }
+
+}
@@ -0,0 +1,65 @@
+package study.project.essentials.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "essentials.client.anime")
+public class AnimeClientProperties {
+
+    // cria o AnimeClient como bean, somente nos serviços que consomem a api (a própria api não precisa do cliente)
+    private boolean enabled = false;
+
+    // endereço da api de animes consumida pelo AnimeClient
+    private String baseUrl = "http://localhost:8080";
+
+    // credenciais do http basic, sem usuário a requisição é enviada sem o header Authorization
+    private String username;
+    private String password;
+
+    // http/2 negociado via ALPN quando a base-url é https, o servidor que não suporta continua no http/1.1
+    private boolean http2 = true;
+
+    private Pool pool = new Pool();
+    private Timeouts timeouts = new Timeouts();
+    private Batch batch = new Batch();
+
+    @Data
+    public static class Pool {
+        // conexões abertas ao mesmo tempo, as requisições excedentes aguardam uma conexão livre
+        private int maxConnections = 50;
+
+        // requisições aguardando uma conexão livre, acima disso a requisição falha imediatamente
+        private int maxPendingAcquires = 500;
+
+        // espera máxima por uma conexão livre
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        // conexão ociosa fechada pelo cliente, deve ser menor que o keep-alive do servidor
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        // a conexão é renovada depois desse tempo (ex: novo ip do balanceador)
+        private Duration maxLifeTime = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Timeouts {
+        // abertura da conexão tcp (e handshake tls)
+        private Duration connect = Duration.ofSeconds(2);
+
+        // tempo máximo entre o envio da requisição e a resposta
+        private Duration response = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Batch {
+        // animes por requisição do POST /animes/batch (o máximo do servidor é 1000)
+        private int size = 1000;
+
+        // requisições simultâneas nas consultas em lote (findByIds)
+        private int concurrency = 8;
+    }
+
+}
@@ -1,71 +1,52 @@
 package study.project.essentials.client;
 
 import lombok.extern.log4j.Log4j2;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import study.project.essentials.domain.Anime;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
 
-import java.util.Arrays;
 import java.util.List;
 
 @Log4j2
 public class SpringClient {
     public static void main(String[] args) {
-        /* RestTemplate >> consumir/extrai informações de uma API externa/outra aplicação
-           através do protocolo HTTP */
-        // getForEntity >> retorna o objeto dentro de um wrapper
-        ResponseEntity<Anime> entity = new RestTemplate().getForEntity("http://localhost:8080/animes/{id}", Anime.class,1);
-        log.info(entity);
-
-        // getForObject >> retorna o objeto diretamente
-        Anime object =new RestTemplate().getForObject("http://localhost:8080/animes/{id}", Anime.class,1);
-
-        log.info(object);
-
-        Anime[] animes = new RestTemplate().getForObject("http://localhost:8080/animes/all", Anime[].class);
-
-        log.info(Arrays.toString(animes));
-
-        // convertendo array para lista
-        //@formatter:off
-        ResponseEntity<List<Anime>> exchange = new RestTemplate().exchange("http://localhost:8080/animes/all",
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<>() {});
-
-        // @formatter:on
-        log.info(exchange.getBody());
-
-        // criando um objeto anime
-        Anime kingdom = Anime.builder().name("Kingdom").build();
-        Anime kingdomSaved = new RestTemplate().postForObject("http://localhost:8080/animes/", kingdom, Anime.class);
-        log.info("saved anime {}", kingdomSaved);
-        
-        Anime samuraiChamploo = Anime.builder().name("Samurai Champloo").build();
-        ResponseEntity<Anime> samuraiChamplooSaved = new RestTemplate().exchange("http://localhost:8080/animes/",
-                HttpMethod.POST,
-                new HttpEntity<>(samuraiChamploo, createJsonHeader()),
-                Anime.class);
-
-        log.info("saved anime {}", samuraiChamplooSaved);
-
-        Anime animeToBeUpdated = samuraiChamplooSaved.getBody();
-        animeToBeUpdated.setName("Samurai Champloo 2");
-
-        ResponseEntity<Void> samuraiChamplooUpdated = new RestTemplate().exchange("http://localhost:8080/animes/",
-                HttpMethod.PUT,
-                new HttpEntity<>(animeToBeUpdated, createJsonHeader()),
-                Void.class);
-
-        log.info(samuraiChamplooUpdated);
-    }
-
-    // enviando um header informando que o content-type da requisição é um application/json
-    private static HttpHeaders createJsonHeader() {
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
-        return httpHeaders;
+        /* AnimeClient >> consumir/extrai informações da API de animes através do protocolo HTTP,
+           um único cliente para todas as chamadas: as conexões ficam abertas e são reaproveitadas */
+        AnimeClientProperties properties = new AnimeClientProperties();
+        properties.setUsername("Noah");
+        properties.setPassword("project");
+        AnimeClient animeClient = new AnimeClient(WebClient.builder(), properties);
+
+        try {
+            // block >> espera a resposta, somente neste exemplo (main)
+            Anime anime = animeClient.findById(1).block();
+            log.info(anime);
+
+            // a lista é lida conforme o array json chega
+            List<Anime> animes = animeClient.listAll().collectList().block();
+            log.info(animes);
+
+            // criando um objeto anime
+            Anime kingdomSaved = animeClient.save(AnimePostRequestBody.builder().name("Kingdom").build()).block();
+            log.info("saved anime {}", kingdomSaved);
+
+            // vários animes em uma única requisição ao /animes/batch
+            List<Anime> savedAnimes = animeClient.saveAllAsync(List.of(
+                    AnimePostRequestBody.builder().name("Samurai Champloo").build(),
+                    AnimePostRequestBody.builder().name("Cowboy Bebop").build())).join();
+            log.info("saved animes {}", savedAnimes);
+
+            Anime samuraiChamploo = savedAnimes.get(0);
+            animeClient.replace(AnimePutRequestBody.builder()
+                    .id(samuraiChamploo.getId())
+                    .name("Samurai Champloo 2")
+                    .version(samuraiChamploo.getVersion())
+                    .build()).block();
+            log.info("updated anime {}", animeClient.findById(samuraiChamploo.getId()).block());
+        } finally {
+            animeClient.destroy();
+        }
     }
 
 }
@@ -0,0 +1,23 @@
+package study.project.essentials.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+import study.project.essentials.client.AnimeClient;
+import study.project.essentials.client.AnimeClientProperties;
+
+// o pool de conexões do cliente só é criado quando a aplicação consome a api de animes de outro serviço
+@Configuration
+@EnableConfigurationProperties(AnimeClientProperties.class)
+@ConditionalOnProperty(prefix = "essentials.client.anime", name = "enabled", havingValue = "true")
+public class AnimeClientConfig {
+
+    // o AnimeClient é DisposableBean, o pool é fechado junto com o contexto
+    @Bean
+    public AnimeClient animeClient(WebClient.Builder webClientBuilder, AnimeClientProperties properties) {
+        return new AnimeClient(webClientBuilder, properties);
+    }
+
+}
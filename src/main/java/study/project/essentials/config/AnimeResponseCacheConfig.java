@@ -0,0 +1,51 @@
+package study.project.essentials.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import study.project.essentials.filter.AnimeResponseCacheFilter;
+import study.project.essentials.service.AnimeResponseCache;
+
+import java.time.Duration;
+
+// cache das respostas serializadas das listagens de animes
+@Configuration
+@EnableConfigurationProperties(AnimeResponseCacheProperties.class)
+@ConditionalOnProperty(prefix = "essentials.anime.response-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Log4j2
+public class AnimeResponseCacheConfig {
+    public static final String CACHE_NAME = "animeResponses";
+
+    @Bean
+    public AnimeResponseCache animeResponseCache(AnimeResponseCacheProperties properties,
+                                                 DataSourceRoutingProperties routing,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        // mesmo atraso máximo das réplicas usado pelo ReplicaRoutingDataSource, sem réplicas as leituras são do primário
+        Duration replicaLag = routing.getReplicas().isEmpty() ? Duration.ZERO : routing.getPrimaryAfterWrite();
+        AnimeResponseCache animeResponseCache = new AnimeResponseCache(properties.getMaximumSize().toBytes(),
+                properties.getTtl(), replicaLag);
+        // hits, misses e remoções publicados como os demais caches (cache.gets, cache.evictions)
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, animeResponseCache.getResponses(), CACHE_NAME));
+        log.info("Caching the first {} page(s) of /animes and /animes/all up to {}", properties.getHotPages(),
+                properties.getMaximumSize());
+        return animeResponseCache;
+    }
+
+    // depois do spring security (requisições sem autenticação não recebem a resposta guardada) e antes do bulkhead
+    @Bean
+    public FilterRegistrationBean<AnimeResponseCacheFilter> animeResponseCacheFilter(AnimeResponseCache animeResponseCache,
+                                                                                     AnimeResponseCacheProperties properties) {
+        FilterRegistrationBean<AnimeResponseCacheFilter> registration = new FilterRegistrationBean<>(
+                new AnimeResponseCacheFilter(animeResponseCache, properties.getHotPages()));
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return registration;
+    }
+
+}
@@ -0,0 +1,25 @@
+package study.project.essentials.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "essentials.anime.response-cache")
+public class AnimeResponseCacheProperties {
+
+    // respostas do GET /animes e do GET /animes/all já serializadas e compactadas (gzip) em memória
+    private boolean enabled = true;
+
+    // soma dos bytes compactados guardados, as respostas menos usadas são removidas acima disso
+    private DataSize maximumSize = DataSize.ofMegabytes(16);
+
+    // somente as primeiras páginas do GET /animes são guardadas (page menor que hot-pages)
+    private int hotPages = 5;
+
+    // limite para as alterações feitas por outras instâncias, as da própria instância removem as respostas na hora
+    private Duration ttl = Duration.ofMinutes(1);
+
+}
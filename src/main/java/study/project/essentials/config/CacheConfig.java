@@ -0,0 +1,30 @@
+package study.project.essentials.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// caches locais (em memória) da aplicação
+@Configuration
+@EnableCaching(proxyTargetClass = true)
+@EnableConfigurationProperties(EssentialsCacheProperties.class)
+@Log4j2
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(EssentialsCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // registrando os caches na inicialização para que o actuator publique as métricas de hit/miss
+        properties.getSpecs().forEach((name, spec) -> {
+            log.info("Registering cache '{}' with spec '{}'", name, spec);
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).build());
+        });
+        return cacheManager;
+    }
+
+}
@@ -0,0 +1,69 @@
+package study.project.essentials.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import study.project.essentials.datasource.ReplicaRoutingDataSource;
+import study.project.essentials.health.DataSourcePoolHealthContributor;
+import study.project.essentials.health.DataSourcePoolHealthIndicator;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/* pool de conexões jdbc (hikari): tamanho calculado pelos núcleos, as demais configurações
+   (cache de statements do mysql, leak detection) ficam em spring.datasource.hikari no application.yml */
+@Configuration
+@EnableConfigurationProperties(DataSourcePoolProperties.class)
+@Log4j2
+public class DataSourcePoolConfig {
+    private static final String MAXIMUM_POOL_SIZE_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+
+    // executado depois do bind de spring.datasource.hikari e antes do pool iniciar (na primeira conexão)
+    @Bean
+    public static BeanPostProcessor hikariPoolSizingPostProcessor(Environment environment,
+                                                                  ObjectProvider<DataSourcePoolProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE_PROPERTY)) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    int availableProcessors = Runtime.getRuntime().availableProcessors();
+                    dataSource.setMaximumPoolSize(properties.getObject().maximumPoolSize(availableProcessors));
+                    log.info("Sizing JDBC pool '{}' to {} connection(s) for {} core(s)",
+                            dataSource.getPoolName(), dataSource.getMaximumPoolSize(), availableProcessors);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // um health por pool: o primário e cada réplica do ReplicaRoutingDataSource
+    @Bean
+    @ConditionalOnEnabledHealthIndicator("dataSourcePool")
+    public DataSourcePoolHealthContributor dataSourcePoolHealthContributor(DataSource dataSource, MeterRegistry meterRegistry,
+                                                                           DataSourcePoolProperties properties) {
+        DataSourcePoolProperties.Health health = properties.getHealth();
+        Map<String, DataSourcePoolHealthIndicator> indicators = new LinkedHashMap<>();
+        ReplicaRoutingDataSource routingDataSource = DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class);
+        List<DataSource> replicas = routingDataSource == null ? List.of() : routingDataSource.getReplicas();
+        indicators.put("primary", new DataSourcePoolHealthIndicator(
+                routingDataSource == null ? dataSource : routingDataSource.getPrimary(), meterRegistry,
+                health.getAcquisitionThreshold(), health.getWindow()));
+        for (int index = 0; index < replicas.size(); index++) {
+            indicators.put("replica-" + index, new DataSourcePoolHealthIndicator(replicas.get(index), meterRegistry,
+                    health.getAcquisitionThreshold(), health.getWindow()));
+        }
+        return new DataSourcePoolHealthContributor(indicators);
+    }
+
+}
@@ -0,0 +1,52 @@
+package study.project.essentials.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "essentials.datasource.pool")
+public class DataSourcePoolProperties {
+
+    // tamanho calculado do pool: núcleos * connections-per-core + spindles (fórmula do hikari)
+    private int connectionsPerCore = 2;
+
+    // acessos ao disco em paralelo no servidor do banco (1 para ssd ou um único disco)
+    private int spindles = 1;
+
+    // requisições simultâneas esperadas no banco, o pool não passa disso (sem valor não há limite)
+    private Integer expectedConcurrency;
+
+    // tamanho fixo, ignora o cálculo (spring.datasource.hikari.maximum-pool-size também tem precedência)
+    private Integer maximumSize;
+
+    private int minimumSize = 2;
+
+    private Health health = new Health();
+
+    // tamanho do pool para a quantidade de núcleos informada
+    public int maximumPoolSize(int availableProcessors) {
+        if (maximumSize != null) {
+            return maximumSize;
+        }
+        int size = availableProcessors * connectionsPerCore + spindles;
+        if (expectedConcurrency != null) {
+            size = Math.min(size, expectedConcurrency);
+        }
+        return Math.max(size, minimumSize);
+    }
+
+    @Data
+    public static class Health {
+        // média de espera por uma conexão acima da qual o health do pool fica DEGRADED
+        private Duration acquisitionThreshold = Duration.ofMillis(100);
+
+        // período considerado na espera média e nos timeouts
+        private Duration window = Duration.ofMinutes(1);
+
+        // intervalo das amostras dos totais do hikari, a janela começa até um intervalo antes de window
+        private Duration sampleInterval = Duration.ofSeconds(10);
+    }
+
+}
@@ -0,0 +1,85 @@
+package study.project.essentials.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.project.essentials.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// réplicas de leitura: as transações somente leitura são enviadas para as réplicas, as demais para o primário
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<DataSourceRoutingProperties> properties,
+                                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaRoutingPostProcessor(properties, meterRegistry);
+    }
+
+    // antes dos post processors sem ordem (ex: métricas jdbc), que passam a encapsular o DataSource com as réplicas
+    @RequiredArgsConstructor
+    @Log4j2
+    static class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+        private final ObjectProvider<DataSourceRoutingProperties> properties;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource)) {
+                return bean;
+            }
+            DataSourceRoutingProperties routing = properties.getObject();
+            if (routing.getReplicas().isEmpty()) {
+                return bean;
+            }
+
+            HikariDataSource primary = (HikariDataSource) bean;
+            List<DataSource> replicas = new ArrayList<>();
+            for (int index = 0; index < routing.getReplicas().size(); index++) {
+                replicas.add(createReplica(primary, routing.getReplicas().get(index), index));
+            }
+            log.info("Routing read-only transactions to {} replica(s) with {} selection",
+                    replicas.size(), routing.getSelection());
+
+            // a conexão é obtida no primeiro sql, quando a transação já informa se é somente leitura
+            return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas,
+                    routing.getSelection(), routing.isFallbackToPrimary(), routing.getPrimaryAfterWrite()));
+        }
+
+        /* mesma configuração do pool primário (tamanho, timeouts, propriedades do driver) com a url da réplica,
+           o pool inicia na primeira conexão: uma réplica fora do ar não impede a aplicação de subir */
+        private HikariDataSource createReplica(HikariDataSource primary, DataSourceRoutingProperties.Replica replica, int index) {
+            HikariDataSource dataSource = new HikariDataSource();
+            primary.copyStateTo(dataSource);
+            dataSource.setJdbcUrl(replica.getUrl());
+            if (replica.getUsername() != null) {
+                dataSource.setUsername(replica.getUsername());
+                dataSource.setPassword(replica.getPassword());
+            }
+            dataSource.setPoolName(primary.getPoolName() + "-replica-" + index);
+            dataSource.setReadOnly(true);
+            meterRegistry.ifAvailable(registry -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            log.info("Read replica pool '{}' for '{}'", dataSource.getPoolName(), replica.getUrl());
+            return dataSource;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package study.project.essentials.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "essentials.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    // réplicas de leitura, sem réplicas todas as consultas usam o spring.datasource
+    private List<Replica> replicas = new ArrayList<>();
+
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    // réplica indisponível: a consulta é executada no primário em vez de falhar
+    private boolean fallbackToPrimary = true;
+
+    /* atraso máximo esperado das réplicas: depois do commit de uma escrita as leituras continuam no primário
+       por esse tempo (ler o que escreveu e não preencher os caches com dados antigos), zero desativa */
+    private Duration primaryAfterWrite = Duration.ofSeconds(2);
+
+    public enum Selection {
+        // uma réplica depois da outra
+        ROUND_ROBIN,
+        // a réplica com menos conexões em uso e requisições esperando no pool
+        LEAST_LOADED
+    }
+
+    @Data
+    public static class Replica {
+        private String url;
+
+        // sem usuário e senha são usados os do spring.datasource
+        private String username;
+        private String password;
+    }
+
+}
@@ -0,0 +1,28 @@
+package study.project.essentials.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "essentials.entity-cache")
+public class EntityCacheProperties {
+
+    // ativa o cache de segundo nível do hibernate
+    private boolean enabled = true;
+
+    // configuração por região, o nome é o mesmo usado no @Cache(region = "...") da entidade
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        // quantidade máxima de entidades na região
+        private long maximumSize = 10_000;
+        // tempo de vida de cada entrada após a escrita
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+}
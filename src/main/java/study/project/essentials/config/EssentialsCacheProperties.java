@@ -0,0 +1,17 @@
+package study.project.essentials.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "essentials.cache")
+public class EssentialsCacheProperties {
+
+    /* especificação do caffeine por nome de cache, ex:
+       projectUsers: maximumSize=1000,expireAfterWrite=5m,recordStats */
+    private Map<String, String> specs = new LinkedHashMap<>();
+
+}
@@ -0,0 +1,42 @@
+package study.project.essentials.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+import study.project.essentials.metrics.EndpointRepositoryTagsProvider;
+import study.project.essentials.metrics.TimedDataSource;
+
+import javax.sql.DataSource;
+
+// métricas dos repositórios e do jdbc com a tag endpoint, a do serviço fica no AnimeServiceMetricsAspect
+@Configuration
+public class MetricsConfig {
+
+    // substitui o provider padrão do spring.data.repository.invocations
+    @Bean
+    public RepositoryTagsProvider endpointRepositoryTagsProvider() {
+        return new EndpointRepositoryTagsProvider();
+    }
+
+    // estático para não inicializar esta configuração antes dos demais post processors
+    @Bean
+    @ConditionalOnProperty(prefix = "essentials.metrics.jdbc", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor timedDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        SingletonSupplier<MeterRegistry> meterRegistrySupplier = SingletonSupplier.of(meterRegistry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource((DataSource) bean, meterRegistrySupplier);
+                }
+                return bean;
+            }
+        };
+    }
+
+}
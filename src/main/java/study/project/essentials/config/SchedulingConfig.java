@@ -0,0 +1,10 @@
+package study.project.essentials.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// tarefas agendadas da aplicação (@Scheduled)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,13 +2,25 @@ package study.project.essentials.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import study.project.essentials.security.CredentialCachingAuthenticationManager;
+import study.project.essentials.security.TokenAuthenticationFilter;
+import study.project.essentials.security.TokenProperties;
+import study.project.essentials.security.TokenService;
+import study.project.essentials.security.VerifiedCredentialCache;
 import study.project.essentials.service.ProjectUserDetailsService;
 
 // configuração que será carregada por toda a aplicação
@@ -20,6 +32,9 @@ import study.project.essentials.service.ProjectUserDetailsService;
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final ProjectUserDetailsService projectUserDetailsService;
+    private final VerifiedCredentialCache verifiedCredentialCache;
+    private final TokenProperties tokenProperties;
+    private final TokenService tokenService;
 
     /**
      * basicAuthenticationFilter
@@ -34,6 +49,11 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     // protegendo o protocolo http
     @Override
     protected void configure(HttpSecurity http) throws Exception {
+        if (tokenProperties.isEnabled()) {
+            configureTokenAuthentication(http);
+            return;
+        }
+
         // autorização de requisições no protocolo http
         http.csrf().disable()
               //  .csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse()).and()
@@ -48,6 +68,27 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .httpBasic();
     }
 
+    // modo stateless: /auth/login emite o token e as demais requisições são validadas sem sessão e sem banco
+    private void configureTokenAuthentication(HttpSecurity http) throws Exception {
+        HttpStatusEntryPoint unauthorizedEntryPoint = new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED);
+
+        http.csrf().disable()
+                .sessionManagement()
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                .and()
+                .exceptionHandling()
+                .authenticationEntryPoint(unauthorizedEntryPoint)
+                .and()
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService, unauthorizedEntryPoint),
+                        UsernamePasswordAuthenticationFilter.class)
+                .authorizeRequests()
+                .antMatchers("/auth/login").permitAll()
+                .antMatchers("/animes/admin/**").hasRole("ADMIN")
+                .antMatchers("/animes/**").hasRole("USER")
+                .anyRequest()
+                .authenticated();
+    }
+
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
@@ -65,7 +106,26 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .roles("USER");
 
         // usuarios no banco de dados
-        auth.userDetailsService(projectUserDetailsService)
-        .passwordEncoder(passwordEncoder);
+        DaoAuthenticationProvider projectUserAuthenticationProvider = new DaoAuthenticationProvider();
+        projectUserAuthenticationProvider.setUserDetailsService(projectUserDetailsService);
+        projectUserAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        auth.authenticationProvider(projectUserAuthenticationProvider);
+    }
+
+    // usado pelo /auth/login para validar usuário e senha antes de emitir o token
+    @Bean
+    @Override
+    public AuthenticationManager authenticationManagerBean() throws Exception {
+        return super.authenticationManagerBean();
+    }
+
+    // reaproveita credenciais já verificadas para não executar o bcrypt em toda requisição
+    @Override
+    protected AuthenticationManager authenticationManager() throws Exception {
+        AuthenticationManager authenticationManager = super.authenticationManager();
+        if (!verifiedCredentialCache.isEnabled()) {
+            return authenticationManager;
+        }
+        return new CredentialCachingAuthenticationManager(authenticationManager, verifiedCredentialCache);
     }
 }
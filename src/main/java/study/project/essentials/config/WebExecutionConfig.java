@@ -0,0 +1,90 @@
+package study.project.essentials.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.project.essentials.filter.JdbcBulkheadFilter;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// modo de execução das requisições e limite de concorrência de acordo com o pool jdbc
+@Configuration
+@EnableConfigurationProperties(WebExecutionProperties.class)
+@Log4j2
+public class WebExecutionConfig {
+    // tamanho padrão do pool do hikari
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "essentials.web.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<JdbcBulkheadFilter> jdbcBulkheadFilter(WebExecutionProperties properties,
+                                                                         DataSource dataSource,
+                                                                         ObjectMapper objectMapper,
+                                                                         MeterRegistry meterRegistry) {
+        // o DataSource pode estar encapsulado (ex: TimedDataSource das métricas jdbc)
+        HikariDataSource hikariDataSource = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        int poolSize = hikariDataSource != null ? hikariDataSource.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+        int maxConcurrentRequests = poolSize * properties.getBulkhead().getPermitsPerConnection();
+        log.info("Limiting /animes to {} concurrent request(s) for a JDBC pool of {} connection(s)",
+                maxConcurrentRequests, poolSize);
+
+        // sem order explícita o filtro executa depois do spring security, requisições sem autenticação não ocupam vagas
+        return new FilterRegistrationBean<>(new JdbcBulkheadFilter(maxConcurrentRequests,
+                properties.getBulkhead().getMaxWait(), objectMapper, meterRegistry));
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "essentials.web", name = "executor", havingValue = "virtual")
+    static class VirtualThreadConfig implements WebMvcConfigurer, DisposableBean {
+        private final Optional<ExecutorService> virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+
+        // as requisições do tomcat executam em virtual threads
+        @Bean
+        public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+            return protocolHandler -> virtualThreadExecutor.ifPresent(protocolHandler::setExecutor);
+        }
+
+        // o processamento assíncrono do mvc (ex: StreamingResponseBody) também usa virtual threads
+        @Override
+        public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+            virtualThreadExecutor.ifPresent(executor -> configurer.setTaskExecutor(new TaskExecutorAdapter(executor)));
+        }
+
+        @Override
+        public void destroy() {
+            virtualThreadExecutor.ifPresent(ExecutorService::shutdown);
+        }
+
+        /* o projeto compila para java 11, o executor é obtido por reflection quando a jvm suporta virtual threads,
+           caso contrário as requisições continuam no pool de threads do tomcat */
+        private static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+            try {
+                ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                log.info("Running the requests on virtual threads");
+                return Optional.of(executor);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads require Java 21 or newer (running {}), using the Tomcat thread pool",
+                        System.getProperty("java.version"));
+                return Optional.empty();
+            }
+        }
+    }
+
+}
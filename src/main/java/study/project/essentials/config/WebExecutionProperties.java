@@ -0,0 +1,36 @@
+package study.project.essentials.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "essentials.web")
+public class WebExecutionProperties {
+
+    // threads que executam as requisições (e os services chamados por elas)
+    private Executor executor = Executor.PLATFORM;
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    public enum Executor {
+        // pool de threads do tomcat (server.tomcat.threads.max)
+        PLATFORM,
+        // uma virtual thread por requisição, somente em java 21 ou superior
+        VIRTUAL
+    }
+
+    @Data
+    public static class Bulkhead {
+        // limita as requisições simultâneas em /animes de acordo com o pool de conexões jdbc
+        private boolean enabled = true;
+
+        // requisições simultâneas permitidas por conexão do pool
+        private int permitsPerConnection = 2;
+
+        // tempo de espera por uma vaga antes de responder 503
+        private Duration maxWait = Duration.ofMillis(500);
+    }
+
+}
@@ -1,5 +1,7 @@
 package study.project.essentials.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -8,17 +10,33 @@ import lombok.extern.log4j.Log4j2;
 import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import study.project.essentials.domain.Anime;
+import study.project.essentials.domain.AnimeVersion;
 import study.project.essentials.requests.AnimePostRequestBody;
 import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.requests.AnimeSearchMode;
+import study.project.essentials.responses.AnimeBatchUpdateResponse;
+import study.project.essentials.responses.AnimeResponse;
+import study.project.essentials.responses.AnimeSuggestion;
+import study.project.essentials.service.AnimeBatchService;
+import study.project.essentials.service.AnimeCountCache;
+import study.project.essentials.service.AnimeNameIndex;
 import study.project.essentials.service.AnimeService;
+import study.project.essentials.util.ETagUtil;
+import study.project.essentials.wrapper.KeysetResponse;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -26,26 +44,114 @@ import java.util.List;
 @Log4j2
 @RequiredArgsConstructor
 public class AnimeController {
+    public static final String APPROXIMATE_TOTAL_COUNT_HEADER = "X-Total-Count-Approximate";
 
     private final AnimeService animeService;
+    private final AnimeBatchService animeBatchService;
+    private final AnimeCountCache animeCountCache;
+    private final AnimeNameIndex animeNameIndex;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     // especificando o método no swagger
     @Operation(summary = "List all animes paginated", description = "The default size is 20, use the parameter size to change the default value",
     tags = {"anime"})
-    public ResponseEntity<Page<Anime>> list(@ParameterObject Pageable pageable) {
-        return ResponseEntity.ok(animeService.listAll(pageable));
+    public ResponseEntity<Page<AnimeResponse>> list(@ParameterObject Pageable pageable, WebRequest webRequest) {
+        // o ETag é calculado somente com as versões, os animes não são carregados quando a página não mudou
+        Page<AnimeVersion> versions = animeService.listVersions(pageable);
+        if (webRequest.checkNotModified(ETagUtil.of(versions))) {
+            // o spring responde 304 sem corpo
+            return null;
+        }
+        return ResponseEntity.ok(animeService.listAllByVersions(versions));
+    }
+
+    // página sem o count(*), o total aproximado é atualizado periodicamente e enviado no header
+    @GetMapping(path = "/slice")
+    @Operation(summary = "List animes paginated without counting the table",
+            description = "Only informs if there is a next page, the approximate total is sent in the header "
+                    + APPROXIMATE_TOTAL_COUNT_HEADER, tags = {"anime"})
+    public ResponseEntity<Slice<Anime>> listSlice(@ParameterObject Pageable pageable) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        animeCountCache.getApproximateCount()
+                .ifPresent(count -> response.header(APPROXIMATE_TOTAL_COUNT_HEADER, Long.toString(count)));
+        return response.body(animeService.listAllSlice(pageable));
+    }
+
+    // paginação por cursor: /animes?after=&size=20, o after vazio retorna a primeira página
+    @GetMapping(params = "after")
+    @Operation(summary = "List animes after the cursor ordered by id",
+            description = "Send the nextCursor of the previous response in the parameter after, the total is not counted",
+            tags = {"anime"})
+    public ResponseEntity<KeysetResponse<Anime>> listAfter(@RequestParam String after,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(animeService.listAfter(after, size));
     }
 
     @GetMapping(path = "/all")
-    public ResponseEntity<List<Anime>> listAll() {
+    public ResponseEntity<List<AnimeResponse>> listAll() {
         return ResponseEntity.ok(animeService.listAllNonPageable());
     }
 
 
+    // /animes/all?stream=json >> escreve o array json conforme as linhas são lidas do banco
+    @GetMapping(path = "/all", params = "stream=json")
+    @Operation(summary = "Stream all animes as a JSON array",
+            description = "The animes are written while they are read, the memory does not depend on the table size",
+            tags = {"anime"})
+    public ResponseEntity<StreamingResponseBody> streamAllAsJson() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                animeService.streamAll(anime -> write(generator, anime));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // /animes/all?stream=ndjson >> um anime json por linha (newline delimited json)
+    @GetMapping(path = "/all", params = "stream=ndjson")
+    @Operation(summary = "Stream all animes as newline delimited JSON", tags = {"anime"})
+    public ResponseEntity<StreamingResponseBody> streamAllAsNdjson() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                animeService.streamAll(anime -> {
+                    write(generator, anime);
+                    writeNewLine(generator);
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void write(JsonGenerator generator, Anime anime) {
+        try {
+            objectMapper.writeValue(generator, anime);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNewLine(JsonGenerator generator) {
+        try {
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // o anime vem do cache de segundo nível, com If-None-Match/If-Modified-Since válidos a resposta é 304 sem serializar
     @GetMapping(path = "/{id}")
-    public ResponseEntity<Anime> findById(@PathVariable long id) {
-        return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
+    public ResponseEntity<Anime> findById(@PathVariable long id, WebRequest webRequest) {
+        Anime anime = animeService.findByIdOrThrowBadRequestException(id);
+        long lastModified = anime.getUpdatedAt() == null ? -1 : anime.getUpdatedAt().toEpochMilli();
+        // o checkNotModified também adiciona os headers ETag e Last-Modified na resposta
+        if (webRequest.checkNotModified(ETagUtil.of(anime), lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok(anime);
     }
 
     // obter o usuário autenticado na requisição
@@ -56,9 +162,32 @@ public class AnimeController {
         return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
     }
 
+    // /animes/find?name=Overlord&page=0&size=20, uma página de animes com o nome e se existe a próxima (Slice)
     @GetMapping(path = "/find")
-    public ResponseEntity<List<Anime>> findByName(@RequestParam String name) {
-        return ResponseEntity.ok(animeService.findByName(name));
+    public ResponseEntity<Slice<AnimeResponse>> findByName(@RequestParam String name, @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(animeService.findByName(name, pageable));
+    }
+
+    // /animes/search?name=ippo&mode=FULL_TEXT&page=0&size=20
+    @GetMapping(path = "/search")
+    @Operation(summary = "Search animes by name paginated",
+            description = "The search ignores case and accents. EXACT compares the whole name, PREFIX the beginning "
+                    + "of the name and FULL_TEXT the beginning of the words of the name ordered by relevance. "
+                    + "The response has no total of elements, only whether there is a next page", tags = {"anime"})
+    public ResponseEntity<Slice<Anime>> search(@RequestParam String name,
+                                               @RequestParam(defaultValue = "PREFIX") AnimeSearchMode mode,
+                                               @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(animeService.search(name, mode, pageable));
+    }
+
+    // typeahead: /animes/suggest?name=ipp&limit=10, respondido pelo índice em memória sem consultar o banco
+    @GetMapping(path = "/suggest")
+    @Operation(summary = "Suggest anime names for the typed text",
+            description = "The text is found in any position of the name ignoring case and accents, names starting "
+                    + "with the text come first. The maximum limit is " + AnimeNameIndex.MAXIMUM_LIMIT, tags = {"anime"})
+    public ResponseEntity<List<AnimeSuggestion>> suggest(@RequestParam String name,
+                                                         @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(animeNameIndex.suggest(name, limit));
     }
 
     @PostMapping
@@ -66,16 +195,44 @@ public class AnimeController {
         return new ResponseEntity<>(animeService.save(animePostRequestBody), HttpStatus.CREATED);
     }
 
+    // insere vários animes na mesma transação com o batch do jdbc
+    @PostMapping(path = "/batch")
+    @Operation(summary = "Save a batch of animes",
+            description = "Every anime is validated before the insert, when one of them is invalid none is saved "
+                    + "and the errors are returned by index. The maximum size is " + AnimeBatchService.MAXIMUM_BATCH_SIZE,
+            tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All animes were saved"),
+            @ApiResponse(responseCode = "400", description = "When at least one anime is invalid")
+    })
+    public ResponseEntity<List<Anime>> saveAll(@RequestBody List<AnimePostRequestBody> animePostRequestBodies) {
+        return new ResponseEntity<>(animeBatchService.saveAll(animePostRequestBodies), HttpStatus.CREATED);
+    }
+
     @PutMapping(path = "/admin")
     // especificando o retorno do método no swagger
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Successful Operation"),
-            @ApiResponse(responseCode = "400", description = "When Anime Does Not Exist in The Database")
+            @ApiResponse(responseCode = "400", description = "When Anime Does Not Exist in The Database"),
+            @ApiResponse(responseCode = "409", description = "When the version is outdated or the anime keeps changing")
     })
     public ResponseEntity<Void> replace(@RequestBody AnimePutRequestBody animePutRequestBody) {
         animeService.replace(animePutRequestBody);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
-}
+    // altera vários animes com updates em lote, sem consultar cada anime antes
+    @PutMapping(path = "/admin/batch")
+    @Operation(summary = "Replace a batch of animes",
+            description = "Every anime is validated before the update, the ids that do not exist are returned in missingIds "
+                    + "and the ones with an outdated version in conflictIds. "
+                    + "The maximum size is " + AnimeBatchService.MAXIMUM_BATCH_SIZE, tags = {"anime"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation"),
+            @ApiResponse(responseCode = "400", description = "When at least one anime is invalid")
+    })
+    public ResponseEntity<AnimeBatchUpdateResponse> replaceAll(@RequestBody List<AnimePutRequestBody> animePutRequestBodies) {
+        return ResponseEntity.ok(animeBatchService.replaceAll(animePutRequestBodies));
+    }
 
+}
@@ -0,0 +1,36 @@
+package study.project.essentials.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.project.essentials.requests.LoginPostRequestBody;
+import study.project.essentials.responses.TokenResponse;
+import study.project.essentials.security.TokenService;
+
+import javax.validation.Valid;
+
+// disponível somente no modo de autenticação por token
+@RestController
+@RequestMapping("auth")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "essentials.security.token", name = "enabled", havingValue = "true")
+public class AuthController {
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+
+    @PostMapping(path = "/login")
+    @Operation(summary = "Authenticate with username and password and receive a signed access token", tags = {"auth"})
+    public ResponseEntity<TokenResponse> login(@RequestBody @Valid LoginPostRequestBody loginPostRequestBody) {
+        return ResponseEntity.ok(tokenService.issue(authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginPostRequestBody.getUsername(), loginPostRequestBody.getPassword()))));
+    }
+
+}
@@ -0,0 +1,154 @@
+package study.project.essentials.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.project.essentials.config.DataSourceRoutingProperties.Selection;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia as transações somente leitura (@Transactional(readOnly = true), inclusive as do SimpleJpaRepository)
+ * para uma das réplicas e o restante para o primário. As escritas e as leituras feitas dentro de uma transação
+ * de escrita continuam no primário, então a transação lê o que acabou de escrever.
+ * Depois do commit de uma transação de escrita as leituras continuam no primário por primaryAfterWrite
+ * (o atraso máximo esperado das réplicas): a requisição seguinte lê o que foi escrito e os caches não são
+ * preenchidos com dados de uma réplica atrasada.
+ * Deve ser encapsulado por um LazyConnectionDataSourceProxy: a conexão é obtida no primeiro sql,
+ * depois do início da transação, quando o flag readOnly já está disponível.
+ */
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Selection selection;
+    private final boolean fallbackToPrimary;
+    private final long primaryAfterWriteNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    // System.nanoTime() até quando as leituras continuam no primário
+    private volatile long primaryUntil = System.nanoTime();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Selection selection,
+                                    boolean fallbackToPrimary, Duration primaryAfterWrite) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.fallbackToPrimary = fallbackToPrimary;
+        this.primaryAfterWriteNanos = primaryAfterWrite.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerWrite();
+            return primary.getConnection();
+        }
+        if (replicas.isEmpty() || isPrimaryPinned()) {
+            return primary.getConnection();
+        }
+        DataSource replica = selectReplica();
+        try {
+            return replica.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            // o hikari lança PoolInitializationException (runtime) quando não consegue iniciar o pool
+            if (!fallbackToPrimary) {
+                throw e;
+            }
+            log.warn("Read replica unavailable, running the read-only transaction on the primary: {}", e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /* somente as transações de escrita confirmadas mantêm as leituras no primário, as conexões fora de transação
+       (ex: health check) não alteram nada */
+    private void registerWrite() {
+        if (primaryAfterWriteNanos <= 0 || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                primaryUntil = System.nanoTime() + primaryAfterWriteNanos;
+            }
+
+            // antes dos listeners do commit (ex: invalidação dos caches): quem vê o cache invalidado já lê do primário
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+        });
+    }
+
+    boolean isPrimaryPinned() {
+        return primaryUntil - System.nanoTime() > 0;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    DataSource selectReplica() {
+        if (selection == Selection.LEAST_LOADED) {
+            return replicas.stream()
+                    .min(Comparator.comparingInt(ReplicaRoutingDataSource::load))
+                    .orElseThrow();
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    // conexões em uso mais requisições esperando, o pool que ainda não iniciou não tem carga
+    private static int load(DataSource dataSource) {
+        HikariPoolMXBean pool = dataSource instanceof HikariDataSource
+                ? ((HikariDataSource) dataSource).getHikariPoolMXBean() : null;
+        return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    // o unwrap chega ao pool do primário (tamanho do pool no bulkhead, métricas e health do hikari)
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    // o spring fecha somente o DataSource exposto como bean, que fecha as réplicas e o primário
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable) {
+                ((AutoCloseable) replica).close();
+            }
+        }
+        if (primary instanceof AutoCloseable) {
+            ((AutoCloseable) primary).close();
+        }
+    }
+
+}
@@ -1,25 +1,71 @@
 package study.project.essentials.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import study.project.essentials.util.SearchNameUtil;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
+import java.time.Instant;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+// índices usados pelo /animes/find (nome exato) e pelo /animes/search (nome normalizado)
+@Table(indexes = {
+        @Index(name = "idx_anime_name", columnList = "name"),
+        @Index(name = "idx_anime_search_name", columnList = "search_name")
+})
 // @Builder >> simplifica a criação do objeto
 @Builder
+// cache de segundo nível, o findById não consulta o banco quando a entidade está em memória
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "anime")
 public class Anime {
+    public static final String ANIME_ID_GENERATOR = "anime_id";
 
+    /* o IDENTITY obriga um insert por vez para obter o id e desabilita o batch do hibernate,
+       a sequence (ou a tabela que a emula no mysql) reserva 50 ids por consulta (pooled-lo) */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ANIME_ID_GENERATOR)
+    @GenericGenerator(name = ANIME_ID_GENERATOR, strategy = "enhanced-sequence", parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "anime_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long id;
     @NotEmpty(message = "The anime name cannot be empty")
     private String name;
 
+    // incrementada a cada update, usada no ETag (primitivo para o spring data não considerar a entidade nova)
+    @Version
+    private long version;
+
+    // data da última alteração, usada no Last-Modified
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    // nome sem acentos e minúsculo, calculado a partir do name e não exposto na api
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @Column(name = "search_name")
+    private String searchName;
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchName() {
+        searchName = SearchNameUtil.normalize(name);
+    }
+
 }
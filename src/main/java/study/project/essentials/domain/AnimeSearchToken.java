@@ -0,0 +1,41 @@
+package study.project.essentials.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/* palavras do nome normalizado de cada anime, usadas pelo /animes/search no modo FULL_TEXT:
+   o "token like 'texto%'" usa o índice, diferente do "search_name like '% texto%'" que lê a tabela inteira.
+   Sem chave estrangeira, as palavras são gravadas na mesma transação do anime (AnimeSearchTokenRepository) */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "anime_search_token", indexes = @Index(name = "idx_anime_search_token", columnList = "token, anime_id"))
+@IdClass(AnimeSearchToken.Key.class)
+public class AnimeSearchToken {
+
+    @Id
+    @Column(name = "anime_id")
+    private Long animeId;
+
+    @Id
+    private String token;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long animeId;
+        private String token;
+    }
+
+}
@@ -0,0 +1,15 @@
+package study.project.essentials.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+// somente as colunas usadas no ETag/Last-Modified, consultadas sem carregar a entidade Anime
+@Data
+@AllArgsConstructor
+public class AnimeVersion {
+    private Long id;
+    private long version;
+    private Instant updatedAt;
+}
@@ -1,27 +1,33 @@
 package study.project.essentials.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import study.project.essentials.listener.ProjectUserEntityListener;
+import study.project.essentials.security.GrantedAuthorities;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Transient;
 import javax.validation.constraints.NotEmpty;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
 @Builder
+// invalida os caches de autenticação quando o usuário muda
+@EntityListeners(ProjectUserEntityListener.class)
 public class ProjectUser implements UserDetails {
 
     @Id
@@ -35,12 +41,17 @@ public class ProjectUser implements UserDetails {
     private String password;
     private String authorities; // ROLE_ADMIN, ROLE_USER
 
-    // obter a autorizações do usuário
+    // username lido do banco, o listener remove dos caches também o nome anterior quando o usuário é renomeado
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String persistedUsername;
+
+    // obter a autorizações do usuário, o texto é convertido uma única vez e compartilhado
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Arrays.stream(authorities.split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        return GrantedAuthorities.parse(authorities);
     }
 
     // obter a senha do usuário
@@ -0,0 +1,12 @@
+package study.project.essentials.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// publicado quando um anime é criado ou alterado, os índices em memória se atualizam a partir dele
+@Data
+@AllArgsConstructor
+public class AnimeChangedEvent {
+    private final long id;
+    private final String name;
+}
@@ -0,0 +1,17 @@
+package study.project.essentials.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// erro de validação de um item do lote, o index é a posição do item na requisição
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchItemError {
+    private int index;
+    private String fields;
+    private String fieldsMessage;
+}
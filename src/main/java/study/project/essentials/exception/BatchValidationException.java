@@ -0,0 +1,18 @@
+package study.project.essentials.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+@Getter
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchValidationException extends RuntimeException {
+    private final transient List<BatchItemError> errors;
+
+    public BatchValidationException(List<BatchItemError> errors) {
+        super(String.format("%d item(s) of the batch are invalid", errors.size()));
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,12 @@
+package study.project.essentials.exception;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Getter
+@SuperBuilder
+public class BatchValidationExceptionDetails extends ExceptionDetails {
+    private final List<BatchItemError> errors;
+}
@@ -0,0 +1,9 @@
+package study.project.essentials.exception;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@SuperBuilder
+public class ConflictExceptionDetails extends ExceptionDetails {
+}
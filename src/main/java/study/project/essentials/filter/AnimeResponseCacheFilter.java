@@ -0,0 +1,159 @@
+package study.project.essentials.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import study.project.essentials.service.AnimeResponseCache;
+import study.project.essentials.service.AnimeResponseCache.CachedResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Responde as primeiras páginas do GET /animes e o GET /animes/all a partir do AnimeResponseCache.
+ * A chave é o endpoint com page, size e sort. Os clientes que aceitam gzip recebem os bytes guardados
+ * como estão (Content-Encoding: gzip), os demais recebem a resposta descompactada.
+ */
+public class AnimeResponseCacheFilter extends OncePerRequestFilter {
+    private static final String LIST_PATH = "/animes";
+    private static final String LIST_ALL_PATH = "/animes/all";
+    private static final String GZIP = "gzip";
+
+    private final AnimeResponseCache animeResponseCache;
+    private final int hotPages;
+
+    public AnimeResponseCacheFilter(AnimeResponseCache animeResponseCache, int hotPages) {
+        this.animeResponseCache = animeResponseCache;
+        this.hotPages = hotPages;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || key(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = key(request);
+        Optional<CachedResponse> cachedResponse = animeResponseCache.get(key);
+        if (cachedResponse.isPresent()) {
+            write(request, response, cachedResponse.get());
+            return;
+        }
+
+        // a mesma url pode ser respondida com gzip na próxima requisição, caches http não devem misturar as duas
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        long generation = animeResponseCache.currentGeneration();
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (responseWrapper.getStatus() == HttpStatus.OK.value()) {
+                animeResponseCache.put(key, generation, responseWrapper.getContentType(),
+                        responseWrapper.getHeader(HttpHeaders.ETAG), responseWrapper.getContentAsByteArray());
+            }
+        } finally {
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    // null quando a requisição não é de uma página guardada (outras páginas, cursor, streaming ou parâmetros inválidos)
+    private String key(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (LIST_ALL_PATH.equals(path)) {
+            return request.getQueryString() == null ? LIST_ALL_PATH : null;
+        }
+        if (!LIST_PATH.equals(path) || request.getParameter("after") != null || !isHotPage(request.getParameter("page"))) {
+            return null;
+        }
+        String[] sort = request.getParameterValues("sort");
+        return LIST_PATH + "?page=" + Optional.ofNullable(request.getParameter("page")).orElse("0")
+                + "&size=" + Optional.ofNullable(request.getParameter("size")).orElse("")
+                + "&sort=" + (sort == null ? "" : String.join("&sort=", sort));
+    }
+
+    private boolean isHotPage(String page) {
+        if (page == null) {
+            return true;
+        }
+        try {
+            int number = Integer.parseInt(page);
+            return number >= 0 && number < hotPages;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cachedResponse)
+            throws IOException {
+        // as métricas http.server.requests continuam com o mesmo uri do controller
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                request.getRequestURI().substring(request.getContextPath().length()));
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (cachedResponse.getETag() != null
+                && new ServletWebRequest(request, response).checkNotModified(cachedResponse.getETag())) {
+            return;
+        }
+
+        response.setContentType(cachedResponse.getContentType());
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            response.setContentLength(cachedResponse.getGzippedBody().length);
+            response.getOutputStream().write(cachedResponse.getGzippedBody());
+        } else {
+            response.setContentLength(cachedResponse.getLength());
+            try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(cachedResponse.getGzippedBody()))) {
+                body.transferTo(response.getOutputStream());
+            }
+        }
+    }
+
+    /* gzip aceito com q maior que 0, ou o * quando o gzip não aparece: "gzip;q=0" recusa o gzip mesmo com o
+       "*" e q inválido conta como 0 */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (GZIP.equals(name)) {
+                gzipQuality = quality(parameters);
+            } else if ("*".equals(name)) {
+                anyQuality = quality(parameters);
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    // parâmetro q da codificação, 1 quando não informado
+    private static double quality(String[] parameters) {
+        for (int index = 1; index < parameters.length; index++) {
+            String parameter = parameters[index].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+}
@@ -0,0 +1,134 @@
+package study.project.essentials.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import study.project.essentials.exception.ExceptionDetails;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita as requisições simultâneas que usam o banco de dados. Sem o limite (principalmente com
+ * virtual threads) as requisições excedentes esperam até o connectionTimeout do pool jdbc,
+ * com o limite elas esperam no máximo maxWait e recebem 503 com Retry-After.
+ */
+public class JdbcBulkheadFilter extends OncePerRequestFilter {
+    private static final String PATH_PREFIX = "/animes";
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public JdbcBulkheadFilter(int maxConcurrentRequests, Duration maxWait, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.objectMapper = objectMapper;
+        Gauge.builder("essentials.web.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Requests that can still run concurrently against the database")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("essentials.web.bulkhead.rejected")
+                .description("Requests answered with 503 because the bulkhead was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().substring(request.getContextPath().length()).startsWith(PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!tryAcquire()) {
+            rejected.increment();
+            reject(response);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // o streaming (StreamingResponseBody) continua usando o banco depois que o filtro retorna
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ExceptionDetails.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .title("Service Unavailable, Try Again Later")
+                .details("Too many concurrent requests to the database")
+                .developerMessage(getClass().getName())
+                .build());
+    }
+
+    private static final class ReleasingAsyncListener implements AsyncListener {
+        private final Runnable release;
+
+        private ReleasingAsyncListener(Runnable release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // o listener é registrado depois do início do processamento assíncrono
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,6 +14,10 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import study.project.essentials.exception.BadRequestException;
 import study.project.essentials.exception.BadRequestExceptionDetails;
+import study.project.essentials.exception.BatchValidationException;
+import study.project.essentials.exception.BatchValidationExceptionDetails;
+import study.project.essentials.exception.ConflictException;
+import study.project.essentials.exception.ConflictExceptionDetails;
 import study.project.essentials.exception.ExceptionDetails;
 import study.project.essentials.exception.ValidationExceptionDetails;
 
@@ -40,6 +45,34 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
                     .build(), HttpStatus.BAD_REQUEST);
     }
 
+    // a versão enviada pelo cliente está desatualizada ou outra transação alterou o anime ao mesmo tempo
+    @ExceptionHandler({ConflictException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<ConflictExceptionDetails> handlerConflictException(RuntimeException conflictException) {
+        return new ResponseEntity<>(
+                ConflictExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .title("Conflict Exception, Reload the Resource and Try Again")
+                        .details(conflictException.getMessage())
+                        .developerMessage(conflictException.getClass().getName())
+                        .build(), HttpStatus.CONFLICT);
+    }
+
+    // erros de validação do POST /animes/batch, um por item inválido
+    @ExceptionHandler(BatchValidationException.class)
+    public ResponseEntity<BatchValidationExceptionDetails> handlerBatchValidationException(
+            BatchValidationException batchValidationException) {
+        return new ResponseEntity<>(
+                BatchValidationExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .title("Bad Request Exception, Invalid Batch Items")
+                        .details(batchValidationException.getMessage())
+                        .developerMessage(batchValidationException.getClass().getName())
+                        .errors(batchValidationException.getErrors())
+                        .build(), HttpStatus.BAD_REQUEST);
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException exception,
         HttpHeaders headers, HttpStatus status, WebRequest request) {
@@ -0,0 +1,43 @@
+package study.project.essentials.health;
+
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Health dos pools jdbc do primário e de cada réplica (/actuator/health/dataSourcePool/primary,
+ * /actuator/health/dataSourcePool/replica-0...). O status agregado é o pior entre os pools, uma réplica lenta
+ * também deixa o dataSourcePool DEGRADED.
+ */
+public class DataSourcePoolHealthContributor implements CompositeHealthContributor {
+    private final Map<String, DataSourcePoolHealthIndicator> indicators;
+
+    public DataSourcePoolHealthContributor(Map<String, DataSourcePoolHealthIndicator> indicators) {
+        this.indicators = Collections.unmodifiableMap(new LinkedHashMap<>(indicators));
+    }
+
+    // amostras dos totais de cada pool, a janela do health avança mesmo sem consultas ao /actuator/health
+    @Scheduled(fixedRateString = "${essentials.datasource.pool.health.sample-interval:PT10S}")
+    public void sample() {
+        indicators.values().forEach(DataSourcePoolHealthIndicator::sample);
+    }
+
+    @Override
+    public HealthContributor getContributor(String name) {
+        return indicators.get(name);
+    }
+
+    @Override
+    public Iterator<NamedContributor<HealthContributor>> iterator() {
+        return indicators.entrySet().stream()
+                .map(entry -> NamedContributor.<HealthContributor>of(entry.getKey(), entry.getValue()))
+                .iterator();
+    }
+
+}
@@ -0,0 +1,138 @@
+package study.project.essentials.health;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Saúde de um pool de conexões jdbc. O status é DEGRADED quando a espera média por uma conexão na janela
+ * (window, ex: último minuto) passa do limite ou quando alguma requisição não conseguiu conexão na janela
+ * (timeout do hikari). A espera vem dos timers do hikari no micrometer (hikaricp.connections.acquire e
+ * hikaricp.connections.timeout): sample() guarda os totais em intervalos fixos e a janela é a diferença entre os
+ * totais atuais e a amostra do início dela, o resultado não depende de quando ou quantas vezes o health é consultado.
+ */
+public class DataSourcePoolHealthIndicator extends AbstractHealthIndicator {
+    public static final Status DEGRADED = new Status("DEGRADED", "JDBC connection acquisition is slower than the threshold");
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final Duration acquisitionThreshold;
+    private final Duration window;
+    private final LongSupplier nanoTime;
+
+    // amostras dos totais, a primeira é a mais recente no início da janela ou antes dele
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    public DataSourcePoolHealthIndicator(DataSource dataSource, MeterRegistry meterRegistry, Duration acquisitionThreshold,
+                                         Duration window) {
+        this(dataSource, meterRegistry, acquisitionThreshold, window, System::nanoTime);
+    }
+
+    DataSourcePoolHealthIndicator(DataSource dataSource, MeterRegistry meterRegistry, Duration acquisitionThreshold,
+                                  Duration window, LongSupplier nanoTime) {
+        super("JDBC connection pool health check failed");
+        this.dataSource = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        this.meterRegistry = meterRegistry;
+        this.acquisitionThreshold = acquisitionThreshold;
+        this.window = window;
+        this.nanoTime = nanoTime;
+    }
+
+    // chamado em intervalos fixos (menores que a janela) pelo DataSourcePoolHealthContributor
+    public synchronized void sample() {
+        if (dataSource == null) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        samples.addLast(totals(now));
+        removeSamplesBeforeTheWindow(now);
+    }
+
+    @Override
+    protected synchronized void doHealthCheck(Health.Builder builder) {
+        if (dataSource == null) {
+            builder.unknown().withDetail("reason", "The DataSource is not a Hikari pool");
+            return;
+        }
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            // o pool inicia na primeira conexão
+            builder.up().withDetail("pool", dataSource.getPoolName()).withDetail("started", false);
+            return;
+        }
+
+        long now = nanoTime.getAsLong();
+        removeSamplesBeforeTheWindow(now);
+        Sample current = totals(now);
+        // antes da primeira amostra a janela começa na inicialização do pool
+        Sample start = samples.isEmpty() ? new Sample(now, 0, 0, 0) : samples.peekFirst();
+
+        long acquisitions = current.getAcquisitions() - start.getAcquisitions();
+        double acquisitionNanos = current.getAcquisitionNanos() - start.getAcquisitionNanos();
+        double timeouts = current.getTimeouts() - start.getTimeouts();
+
+        Duration averageAcquisition = Duration.ofNanos(acquisitions == 0 ? 0 : (long) (acquisitionNanos / acquisitions));
+        int maximum = dataSource.getMaximumPoolSize();
+        boolean degraded = averageAcquisition.compareTo(acquisitionThreshold) > 0 || timeouts > 0;
+
+        builder.status(degraded ? DEGRADED : Status.UP)
+                .withDetail("pool", dataSource.getPoolName())
+                .withDetail("active", pool.getActiveConnections())
+                .withDetail("idle", pool.getIdleConnections())
+                .withDetail("total", pool.getTotalConnections())
+                .withDetail("maximum", maximum)
+                .withDetail("pending", pool.getThreadsAwaitingConnection())
+                // todas as conexões em uso e requisições esperando
+                .withDetail("saturated", pool.getActiveConnections() >= maximum && pool.getThreadsAwaitingConnection() > 0)
+                .withDetail("window", window.toString())
+                .withDetail("acquisitions", acquisitions)
+                .withDetail("averageAcquisition", averageAcquisition.toString())
+                .withDetail("acquisitionThreshold", acquisitionThreshold.toString())
+                .withDetail("timeouts", (long) timeouts);
+    }
+
+    // mantém somente a última amostra anterior ao início da janela, que é a base da diferença
+    private void removeSamplesBeforeTheWindow(long now) {
+        long windowStart = now - window.toNanos();
+        while (samples.size() > 1) {
+            Sample first = samples.removeFirst();
+            if (samples.peekFirst().getTime() - windowStart > 0) {
+                samples.addFirst(first);
+                return;
+            }
+        }
+    }
+
+    private Sample totals(long now) {
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", dataSource.getPoolName()).timer();
+        Counter timeout = meterRegistry.find("hikaricp.connections.timeout").tag("pool", dataSource.getPoolName()).counter();
+        return new Sample(now,
+                acquire == null ? 0 : acquire.count(),
+                acquire == null ? 0 : acquire.totalTime(TimeUnit.NANOSECONDS),
+                timeout == null ? 0 : timeout.count());
+    }
+
+    @Value
+    private static class Sample {
+        long time;
+        long acquisitions;
+        double acquisitionNanos;
+        double timeouts;
+    }
+
+}
@@ -0,0 +1,72 @@
+package study.project.essentials.listener;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.project.essentials.domain.ProjectUser;
+import study.project.essentials.security.VerifiedCredentialCache;
+import study.project.essentials.service.ProjectUserDetailsService;
+
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// invalida os caches de autenticação sempre que a linha do ProjectUser muda, inclusive do username anterior
+@Component
+@RequiredArgsConstructor
+public class ProjectUserEntityListener {
+
+    // ObjectProvider >> o listener é criado pelo hibernate, os caches podem não existir (ex: @DataJpaTest)
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final ObjectProvider<VerifiedCredentialCache> verifiedCredentialCache;
+
+    // guarda o username do banco para encontrar o nome anterior depois de uma alteração
+    @PostLoad
+    public void onLoad(ProjectUser projectUser) {
+        projectUser.setPersistedUsername(projectUser.getUsername());
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(ProjectUser projectUser) {
+        // no rename o nome anterior também está nos caches (usuário e credenciais verificadas)
+        Set<String> usernames = new LinkedHashSet<>();
+        if (projectUser.getPersistedUsername() != null) {
+            usernames.add(projectUser.getPersistedUsername());
+        }
+        if (projectUser.getUsername() != null) {
+            usernames.add(projectUser.getUsername());
+        }
+        projectUser.setPersistedUsername(projectUser.getUsername());
+        usernames.forEach(this::evict);
+
+        // removendo novamente após o commit, evitando que outra requisição guarde o valor antigo
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    usernames.forEach(ProjectUserEntityListener.this::evict);
+                }
+            });
+        }
+    }
+
+    private void evict(String username) {
+        cacheManager.ifAvailable(manager -> {
+            Cache cache = manager.getCache(ProjectUserDetailsService.PROJECT_USERS_CACHE);
+            if (cache != null) {
+                cache.evict(username);
+            }
+        });
+        verifiedCredentialCache.ifAvailable(cache -> cache.evict(username));
+    }
+
+}
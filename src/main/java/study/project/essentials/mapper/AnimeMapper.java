@@ -1,6 +1,7 @@
 package study.project.essentials.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import study.project.essentials.domain.Anime;
 import study.project.essentials.requests.AnimePostRequestBody;
@@ -14,7 +15,13 @@ public abstract class AnimeMapper {
        convertendo automaticamente de todos
        os atributos dentro das dto's
     */
+    // o searchName é calculado pela entidade antes do insert/update, version e updatedAt são controlados pelo hibernate
+    @Mapping(target = "searchName", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     public abstract Anime toAnime(AnimePostRequestBody animePostRequestBody);
+    @Mapping(target = "searchName", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     public abstract Anime toAnime(AnimePutRequestBody animePutRequestBody);
 
 }
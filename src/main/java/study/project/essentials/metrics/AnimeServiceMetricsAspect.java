@@ -0,0 +1,46 @@
+package study.project.essentials.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latência, quantidade de chamadas e de erros de cada operação do AnimeService e do AnimeBatchService.
+ * O timer essentials.anime.service tem as tags class, method, endpoint, outcome e exception,
+ * os percentis e o histograma são configurados em management.metrics.distribution.
+ * Nos métodos que devolvem Stream somente a abertura da consulta é medida, a leitura é do controller.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class AnimeServiceMetricsAspect {
+    public static final String TIMER_NAME = "essentials.anime.service";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * study.project.essentials.service.AnimeService.*(..)) || "
+            + "execution(public * study.project.essentials.service.AnimeBatchService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable exception = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            exception = throwable;
+            throw throwable;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Latency of the anime service operations")
+                    .tags(Tags.of("class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                            "method", joinPoint.getSignature().getName()))
+                    .tags(Tags.of(MetricsTags.endpoint(), MetricsTags.outcome(exception), MetricsTags.exception(exception)))
+                    .register(meterRegistry));
+        }
+    }
+
+}
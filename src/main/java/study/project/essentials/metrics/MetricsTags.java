@@ -0,0 +1,42 @@
+package study.project.essentials.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+// tags comuns às métricas do serviço, dos repositórios e do jdbc
+public final class MetricsTags {
+    public static final String OUTCOME_SUCCESS = "SUCCESS";
+    public static final String OUTCOME_ERROR = "ERROR";
+    private static final String NONE = "none";
+    private static final Tag ENDPOINT_NONE = Tag.of("endpoint", NONE);
+    private static final Tag EXCEPTION_NONE = Tag.of("exception", NONE);
+
+    private MetricsTags() {
+    }
+
+    /* endpoint da requisição em andamento com o padrão da rota (ex: GET /animes/{id}), mesmo valor
+       da tag uri do http.server.requests. Fora de uma requisição (tarefas agendadas, eventos) o valor é none */
+    public static Tag endpoint() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(requestAttributes instanceof ServletRequestAttributes)) {
+            return ENDPOINT_NONE;
+        }
+        Object pattern = requestAttributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (pattern == null) {
+            return ENDPOINT_NONE;
+        }
+        return Tag.of("endpoint", ((ServletRequestAttributes) requestAttributes).getRequest().getMethod() + " " + pattern);
+    }
+
+    public static Tag outcome(Throwable exception) {
+        return Tag.of("outcome", exception == null ? OUTCOME_SUCCESS : OUTCOME_ERROR);
+    }
+
+    public static Tag exception(Throwable exception) {
+        return exception == null ? EXCEPTION_NONE : Tag.of("exception", exception.getClass().getSimpleName());
+    }
+}
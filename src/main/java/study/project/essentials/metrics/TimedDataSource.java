@@ -0,0 +1,142 @@
+package study.project.essentials.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Mede cada execução de sql no jdbc (hibernate, spring data e JdbcTemplate) no timer essentials.jdbc.query,
+ * com as tags operation (select, insert, update, delete, call ou other), endpoint, outcome e exception.
+ * A conexão e os statements são proxies que somente medem os métodos execute*, o restante é repassado.
+ */
+public class TimedDataSource extends DelegatingDataSource implements AutoCloseable {
+    public static final String TIMER_NAME = "essentials.jdbc.query";
+    private static final Set<String> STATEMENT_FACTORY_METHODS = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final Set<String> OPERATIONS = Set.of("select", "insert", "update", "delete", "merge", "call");
+
+    // o registry é obtido na primeira consulta, o hibernate abre conexões antes dele existir
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    public TimedDataSource(DataSource targetDataSource, Supplier<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement && STATEMENT_FACTORY_METHODS.contains(method.getName())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return timedStatement(method.getReturnType(), (Statement) result, sql);
+            }
+            return result;
+        });
+    }
+
+    // o sql do PreparedStatement é informado na criação, o do Statement em cada execute
+    private Object timedStatement(Class<?> statementType, Statement statement, String preparedSql) {
+        return proxy(statementType, statement, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            return time(operation(sql), () -> invoke(statement, method, args));
+        });
+    }
+
+    private Object time(String operation, JdbcCall call) throws Throwable {
+        MeterRegistry registry = meterRegistry.get();
+        Timer.Sample sample = Timer.start(registry);
+        Throwable exception = null;
+        try {
+            return call.execute();
+        } catch (Throwable throwable) {
+            exception = throwable;
+            throw throwable;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Latency of the sql statements executed through jdbc")
+                    .tags(Tags.of("operation", operation))
+                    .tags(Tags.of(MetricsTags.endpoint(), MetricsTags.outcome(exception), MetricsTags.exception(exception)))
+                    .register(registry));
+        }
+    }
+
+    /* o spring fecha o bean exposto (este DataSource) e não o pool encapsulado,
+       o close é repassado ao primeiro DataSource da cadeia que pode ser fechado */
+    @Override
+    public void close() throws Exception {
+        DataSource target = getTargetDataSource();
+        while (target instanceof DelegatingDataSource && !(target instanceof AutoCloseable)) {
+            target = ((DelegatingDataSource) target).getTargetDataSource();
+        }
+        if (target instanceof AutoCloseable) {
+            ((AutoCloseable) target).close();
+        }
+    }
+
+    static String operation(String sql) {
+        if (sql == null) {
+            return "other";
+        }
+        String statement = sql.stripLeading();
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        String operation = statement.substring(0, end).toLowerCase(Locale.ROOT);
+        return OPERATIONS.contains(operation) ? operation : "other";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            // o hibernate guarda os statements em mapas, a igualdade é a do próprio proxy
+            if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            return handler.invoke(proxy, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface JdbcCall {
+        Object execute() throws Throwable;
+    }
+
+}
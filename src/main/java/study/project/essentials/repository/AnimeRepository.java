@@ -1,10 +1,67 @@
 package study.project.essentials.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import study.project.essentials.domain.Anime;
+import study.project.essentials.domain.AnimeVersion;
+import study.project.essentials.responses.AnimeResponse;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface AnimeRepository extends JpaRepository<Anime, Long> {
-    List<Anime> findByName(String name);
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+/* as consultas de listagem carregam os animes somente leitura (HINT_READONLY) mesmo fora de uma transação
+   readOnly: o hibernate não guarda a cópia do estado para o dirty checking. O findById e o findAllById
+   continuam gerenciados, são usados pelo replace e pela alteração em lote */
+public interface AnimeRepository extends JpaRepository<Anime, Long>, AnimeRepositoryCustom {
+    String ANIME_RESPONSE = "select new study.project.essentials.responses.AnimeResponse(a.id, a.name, a.version, a.updatedAt) from Anime a";
+
+    // projeções das listagens: somente as colunas da resposta, nenhuma entidade é criada
+    // limitada pelo pageable, sem count
+    @Query(ANIME_RESPONSE + " where a.name = :name")
+    Slice<AnimeResponse> findByName(String name, Pageable pageable);
+
+    @Query(ANIME_RESPONSE)
+    List<AnimeResponse> findAllResponsesBy();
+
+    @Query(ANIME_RESPONSE + " where a.id in :ids")
+    List<AnimeResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    // buscas pelo nome normalizado (coluna search_name indexada), em Slice como o searchByTokens
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Anime> findBySearchName(String searchName, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Anime> findBySearchNameStartingWith(String searchName, Pageable pageable);
+
+    // página somente com id, versão e data de alteração, usada para responder 304 sem carregar os animes
+    @Query(value = "select new study.project.essentials.domain.AnimeVersion(a.id, a.version, a.updatedAt) from Anime a",
+            countQuery = "select count(a) from Anime a")
+    Page<AnimeVersion> findVersionsBy(Pageable pageable);
+
+    // o retorno em Slice busca um elemento a mais em vez de executar o count
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Anime> findAllBy(Pageable pageable);
+
+    /* leitura sequencial da tabela inteira: o driver busca as linhas em blocos (fetch size),
+       as entidades são somente leitura e não são colocadas no cache de segundo nível */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Anime> streamAllByOrderByIdAsc();
+
+    // paginação por chave, o retorno em List não executa o count
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<Anime> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,14 @@
+package study.project.essentials.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.project.essentials.domain.Anime;
+
+import java.util.List;
+
+// consultas que não podem ser derivadas do nome do método
+public interface AnimeRepositoryCustom {
+
+    // animes com pelo menos uma das palavras, os que possuem mais palavras vêm primeiro (sem o total de elementos)
+    Slice<Anime> searchByTokens(List<String> tokens, Pageable pageable);
+}
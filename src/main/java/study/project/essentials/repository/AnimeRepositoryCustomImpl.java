@@ -0,0 +1,97 @@
+package study.project.essentials.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.domain.AnimeSearchToken;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+@RequiredArgsConstructor
+public class AnimeRepositoryCustomImpl implements AnimeRepositoryCustom {
+    private final EntityManager entityManager;
+
+    /* as palavras são encontradas pelo índice da anime_search_token (token like 'texto%'), somente os animes
+       encontrados são agrupados e ordenados, e o Slice busca um elemento a mais em vez de executar o count */
+    @Override
+    public Slice<Anime> searchByTokens(List<String> tokens, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<AnimeSearchToken> searchToken = query.from(AnimeSearchToken.class);
+        Root<Anime> anime = query.from(Anime.class);
+        Path<String> token = searchToken.get("token");
+        Path<Long> id = anime.get("id");
+        Path<String> searchName = anime.get("searchName");
+
+        // relevância: quantidade de palavras do texto encontradas no nome
+        Expression<Integer> relevance = null;
+        for (String text : tokens) {
+            Expression<Integer> matched = criteriaBuilder.max(criteriaBuilder.<Integer>selectCase()
+                    .when(matchesToken(criteriaBuilder, token, text), 1)
+                    .otherwise(0));
+            relevance = relevance == null ? matched : criteriaBuilder.sum(relevance, matched);
+        }
+
+        query.select(id)
+                .where(criteriaBuilder.equal(searchToken.get("animeId"), id),
+                        criteriaBuilder.or(tokens.stream()
+                                .map(text -> matchesToken(criteriaBuilder, token, text))
+                                .toArray(Predicate[]::new)))
+                .groupBy(id, searchName)
+                // em caso de empate os nomes mais curtos são mais próximos do texto buscado
+                .orderBy(criteriaBuilder.desc(relevance),
+                        criteriaBuilder.asc(criteriaBuilder.length(searchName)),
+                        criteriaBuilder.asc(id));
+
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        }
+        List<Long> ids = typedQuery.getResultList();
+
+        boolean hasNext = pageable.isPaged() && ids.size() > pageable.getPageSize();
+        List<Long> pageIds = hasNext ? ids.subList(0, pageable.getPageSize()) : ids;
+        return new SliceImpl<>(findAllInOrder(pageIds), pageable, hasNext);
+    }
+
+    private List<Anime> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Anime> animes = entityManager.createQuery("select a from Anime a where a.id in :ids", Anime.class)
+                .setParameter("ids", ids)
+                .setHint(HINT_READONLY, true)
+                .getResultStream()
+                .collect(Collectors.toMap(Anime::getId, Function.identity()));
+
+        // mantendo a ordem de relevância
+        return ids.stream()
+                .map(animes::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // a palavra do nome começa com o token (os tokens possuem somente letras e números, sem curingas do like)
+    private static Predicate matchesToken(CriteriaBuilder criteriaBuilder, Path<String> token, String text) {
+        return criteriaBuilder.like(token, text + "%");
+    }
+}
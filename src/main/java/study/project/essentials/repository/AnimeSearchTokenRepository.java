@@ -0,0 +1,47 @@
+package study.project.essentials.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import study.project.essentials.util.SearchNameUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/* grava as palavras dos nomes na anime_search_token em lotes via jdbc, chamado pelos services
+   na mesma transação que cria ou altera os animes */
+@Repository
+@RequiredArgsConstructor
+public class AnimeSearchTokenRepository {
+    // mesmo tamanho do hibernate.jdbc.batch_size
+    private static final int BATCH_SIZE = 50;
+
+    private static final String DELETE_SQL = "delete from anime_search_token where anime_id = ?";
+    private static final String INSERT_SQL = "insert into anime_search_token (anime_id, token) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // animes novos, ainda sem palavras gravadas
+    public void insertAll(Map<Long, String> namesById) {
+        List<Object[]> tokens = new ArrayList<>();
+        namesById.forEach((id, name) -> SearchNameUtil.words(name).forEach(token -> tokens.add(new Object[]{id, token})));
+        if (!tokens.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, tokens, BATCH_SIZE, (preparedStatement, token) -> {
+                preparedStatement.setLong(1, (Long) token[0]);
+                preparedStatement.setString(2, (String) token[1]);
+            });
+        }
+    }
+
+    // animes alterados: as palavras do nome anterior são removidas antes de gravar as novas
+    public void replaceAll(Map<Long, String> namesById) {
+        if (namesById.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, new ArrayList<>(namesById.keySet()), BATCH_SIZE,
+                (preparedStatement, id) -> preparedStatement.setLong(1, id));
+        insertAll(namesById);
+    }
+
+}
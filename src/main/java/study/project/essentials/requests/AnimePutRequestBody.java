@@ -1,11 +1,20 @@
 package study.project.essentials.requests;
 
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Data;
 
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
 @Data
 @Builder
 public class AnimePutRequestBody {
+    @NotNull(message = "The anime id cannot be null")
     private Long id;
+    @NotEmpty(message = "The anime name cannot be empty")
     private String name;
+    // versão lida pelo cliente, quando informada a alteração só acontece se o anime não mudou desde a leitura
+    @Schema(description = "The version returned by the GET, when it is outdated the response is 409", example = "0")
+    private Long version;
 }
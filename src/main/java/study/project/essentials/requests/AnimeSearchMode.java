@@ -0,0 +1,11 @@
+package study.project.essentials.requests;
+
+// modos de busca do GET /animes/search, todos comparam o nome normalizado (SearchNameUtil)
+public enum AnimeSearchMode {
+    // nome igual, usa o índice da coluna search_name
+    EXACT,
+    // nome começa com o texto, usa o índice da coluna search_name
+    PREFIX,
+    // palavras do nome começam com as palavras do texto (índice da anime_search_token), ordenado pela quantidade encontrada
+    FULL_TEXT
+}
@@ -0,0 +1,23 @@
+package study.project.essentials.requests;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoginPostRequestBody {
+    @NotEmpty(message = "The username cannot be empty")
+    @Schema(description = "This is the user's username", example = "Noah", required = true)
+    private String username;
+
+    @NotEmpty(message = "The password cannot be empty")
+    @Schema(description = "This is the user's password", required = true)
+    private String password;
+}
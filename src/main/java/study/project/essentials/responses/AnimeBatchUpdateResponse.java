@@ -0,0 +1,21 @@
+package study.project.essentials.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeBatchUpdateResponse {
+    // quantidade de animes alterados
+    private int updated;
+    // ids enviados que não existem no banco de dados
+    private List<Long> missingIds;
+    // ids com a versão enviada desatualizada, não foram alterados
+    private List<Long> conflictIds;
+}
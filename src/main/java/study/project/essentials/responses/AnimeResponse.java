@@ -0,0 +1,21 @@
+package study.project.essentials.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/* anime das listagens, criado direto pela consulta (select new) sem passar pelo contexto de persistência:
+   sem entidade gerenciada, proxy ou cópia para o dirty checking. O json é o mesmo da entidade Anime */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeResponse {
+    private Long id;
+    private String name;
+    private long version;
+    private Instant updatedAt;
+}
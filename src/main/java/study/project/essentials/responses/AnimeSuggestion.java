@@ -0,0 +1,15 @@
+package study.project.essentials.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeSuggestion {
+    private long id;
+    private String name;
+}
@@ -0,0 +1,17 @@
+package study.project.essentials.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenResponse {
+    private String accessToken;
+    private String tokenType;
+    // tempo de vida do token em segundos
+    private long expiresIn;
+}
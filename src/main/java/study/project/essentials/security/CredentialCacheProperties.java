@@ -0,0 +1,21 @@
+package study.project.essentials.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "essentials.security.credential-cache")
+public class CredentialCacheProperties {
+
+    // o cache de credenciais verificadas é opcional (opt-in)
+    private boolean enabled = false;
+
+    // tempo em que uma credencial verificada é reaproveitada sem executar o bcrypt novamente
+    private Duration ttl = Duration.ofSeconds(60);
+
+    // quantidade máxima de credenciais em cache
+    private long maximumSize = 10_000;
+
+}
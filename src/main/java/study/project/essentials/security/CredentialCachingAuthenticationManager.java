@@ -0,0 +1,47 @@
+package study.project.essentials.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import study.project.essentials.security.VerifiedCredentialCache.VerifiedCredential;
+
+/**
+ * Decora o AuthenticationManager para reaproveitar credenciais já verificadas,
+ * evitando executar o bcrypt em toda requisição HTTP Basic.
+ */
+@RequiredArgsConstructor
+public class CredentialCachingAuthenticationManager implements AuthenticationManager {
+
+    private final AuthenticationManager delegate;
+    private final VerifiedCredentialCache verifiedCredentialCache;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        // somente usuário e senha podem ser reaproveitados
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken)
+                || !(authentication.getCredentials() instanceof String)) {
+            return delegate.authenticate(authentication);
+        }
+
+        String digest = verifiedCredentialCache.digest(authentication.getName(), (String) authentication.getCredentials());
+
+        VerifiedCredential verifiedCredential = verifiedCredentialCache.get(digest);
+        if (verifiedCredential != null) {
+            // um novo token por requisição, o ProviderManager apaga as credenciais do resultado
+            UsernamePasswordAuthenticationToken result = new UsernamePasswordAuthenticationToken(
+                    verifiedCredential.getPrincipal(), authentication.getCredentials(), verifiedCredential.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        long start = System.nanoTime();
+        Authentication result = delegate.authenticate(authentication);
+        verifiedCredentialCache.recordVerification(System.nanoTime() - start);
+
+        verifiedCredentialCache.put(digest,
+                new VerifiedCredential(result.getName(), result.getPrincipal(), result.getAuthorities()));
+        return result;
+    }
+
+}
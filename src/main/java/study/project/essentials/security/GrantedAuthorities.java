@@ -0,0 +1,65 @@
+package study.project.essentials.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Converte o texto de autorizações (ROLE_ADMIN, ROLE_USER) uma única vez.
+ * As instâncias de GrantedAuthority e os conjuntos imutáveis são compartilhados,
+ * o getAuthorities() não aloca objetos a cada chamada.
+ */
+public final class GrantedAuthorities {
+    // poucos textos diferentes existem na prática, o limite evita crescimento indevido
+    private static final int MAXIMUM_CACHED = 1024;
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Set<GrantedAuthority>> PARSED = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    // retorna a instância compartilhada da autorização
+    public static GrantedAuthority of(String authority) {
+        GrantedAuthority grantedAuthority = AUTHORITIES.get(authority);
+        if (grantedAuthority != null) {
+            return grantedAuthority;
+        }
+        if (AUTHORITIES.size() >= MAXIMUM_CACHED) {
+            return new SimpleGrantedAuthority(authority);
+        }
+        return AUTHORITIES.computeIfAbsent(authority, SimpleGrantedAuthority::new);
+    }
+
+    // converte o texto separado por vírgula em um conjunto imutável
+    public static Set<GrantedAuthority> parse(String authorities) {
+        if (authorities == null || authorities.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<GrantedAuthority> grantedAuthorities = PARSED.get(authorities);
+        if (grantedAuthorities != null) {
+            return grantedAuthorities;
+        }
+        if (PARSED.size() >= MAXIMUM_CACHED) {
+            return split(authorities);
+        }
+        return PARSED.computeIfAbsent(authorities, GrantedAuthorities::split);
+    }
+
+    private static Set<GrantedAuthority> split(String authorities) {
+        Set<GrantedAuthority> grantedAuthorities = Arrays.stream(authorities.split(","))
+                .map(String::trim)
+                .filter(authority -> !authority.isEmpty())
+                .map(GrantedAuthorities::of)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return Collections.unmodifiableSet(grantedAuthorities);
+    }
+
+}
@@ -0,0 +1,45 @@
+package study.project.essentials.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// autentica a requisição pelo header Authorization: Bearer <token>, sem sessão e sem banco de dados
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+    private final AuthenticationEntryPoint authenticationEntryPoint;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            SecurityContextHolder.getContext()
+                    .setAuthentication(tokenService.parse(header.substring(BEARER_PREFIX.length()).trim()));
+        } catch (AuthenticationException exception) {
+            SecurityContextHolder.clearContext();
+            authenticationEntryPoint.commence(request, response, exception);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+}
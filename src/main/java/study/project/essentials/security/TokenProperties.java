@@ -0,0 +1,30 @@
+package study.project.essentials.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "essentials.security.token")
+public class TokenProperties {
+
+    // ativa o modo stateless: login emite um token assinado e as requisições não usam sessão nem banco
+    private boolean enabled = false;
+
+    // emissor gravado e validado no token
+    private String issuer = "essentials";
+
+    // tempo de vida do token de acesso
+    private Duration ttl = Duration.ofMinutes(15);
+
+    // id da chave usada para assinar os novos tokens
+    private String keyId;
+
+    /* chaves de assinatura (HMAC-SHA256) por id, todas são aceitas na validação,
+       permitindo a troca de chave sem invalidar os tokens emitidos */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+}
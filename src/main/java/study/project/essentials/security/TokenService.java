@@ -0,0 +1,185 @@
+package study.project.essentials.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.stereotype.Component;
+import study.project.essentials.responses.TokenResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emite e valida tokens de acesso no formato JWT (HS256).
+ * O token carrega o usuário e as autorizações, a validação não consulta o banco de dados.
+ */
+@Component
+@EnableConfigurationProperties(TokenProperties.class)
+@Log4j2
+public class TokenService {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MINIMUM_KEY_LENGTH = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final TokenProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+    private final String activeKeyId;
+
+    @Autowired
+    public TokenService(TokenProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, Clock.systemUTC());
+    }
+
+    TokenService(TokenProperties properties, ObjectMapper objectMapper, Clock clock) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+
+        properties.getKeys().forEach((keyId, secret) -> {
+            byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length < MINIMUM_KEY_LENGTH) {
+                throw new IllegalStateException(String.format("Token signing key '%s' must have at least %d bytes",
+                        keyId, MINIMUM_KEY_LENGTH));
+            }
+            keys.put(keyId, new SecretKeySpec(bytes, HMAC_ALGORITHM));
+        });
+
+        if (keys.isEmpty()) {
+            // sem chave configurada os tokens só valem nesta instância e até ela reiniciar
+            byte[] bytes = new byte[MINIMUM_KEY_LENGTH];
+            new SecureRandom().nextBytes(bytes);
+            keys.put("generated", new SecretKeySpec(bytes, HMAC_ALGORITHM));
+            this.activeKeyId = "generated";
+            if (properties.isEnabled()) {
+                log.warn("No token signing key configured, using a generated key valid only for this instance");
+            }
+        } else {
+            this.activeKeyId = properties.getKeyId() != null ? properties.getKeyId() : keys.keySet().iterator().next();
+            if (!keys.containsKey(activeKeyId)) {
+                throw new IllegalStateException(String.format("Token signing key '%s' is not configured", activeKeyId));
+            }
+        }
+    }
+
+    public TokenResponse issue(Authentication authentication) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(properties.getTtl());
+
+        ObjectNode header = objectMapper.createObjectNode()
+                .put("alg", "HS256")
+                .put("typ", "JWT")
+                .put("kid", activeKeyId);
+
+        ObjectNode payload = objectMapper.createObjectNode()
+                .put("iss", properties.getIssuer())
+                .put("sub", authentication.getName())
+                .put("iat", now.getEpochSecond())
+                .put("exp", expiresAt.getEpochSecond());
+        ArrayNode authorities = payload.putArray("authorities");
+        authentication.getAuthorities().forEach(authority -> authorities.add(authority.getAuthority()));
+
+        String content = encode(header) + "." + encode(payload);
+        String token = content + "." + ENCODER.encodeToString(sign(keys.get(activeKeyId), content));
+
+        return TokenResponse.builder()
+                .accessToken(token)
+                .tokenType("Bearer")
+                .expiresIn(properties.getTtl().getSeconds())
+                .build();
+    }
+
+    public Authentication parse(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            throw new BadCredentialsException("Malformed token");
+        }
+
+        JsonNode header = decode(parts[0]);
+        SecretKeySpec key = keys.get(header.path("kid").asText());
+        if (key == null || !"HS256".equals(header.path("alg").asText())) {
+            throw new BadCredentialsException("Unknown token signing key");
+        }
+
+        // comparação em tempo constante da assinatura
+        byte[] expectedSignature = sign(key, parts[0] + "." + parts[1]);
+        if (!MessageDigest.isEqual(expectedSignature, decodeBytes(parts[2]))) {
+            throw new BadCredentialsException("Invalid token signature");
+        }
+
+        JsonNode payload = decode(parts[1]);
+        if (!properties.getIssuer().equals(payload.path("iss").asText())) {
+            throw new BadCredentialsException("Invalid token issuer");
+        }
+        if (clock.instant().getEpochSecond() >= payload.path("exp").asLong()) {
+            throw new CredentialsExpiredException("Token expired");
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        payload.path("authorities").forEach(authority -> authorities.add(GrantedAuthorities.of(authority.asText())));
+
+        // o principal é montado a partir do token, sem consultar o banco de dados
+        User principal = new User(payload.path("sub").asText(), "", authorities);
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    private String encode(JsonNode node) {
+        try {
+            return ENCODER.encodeToString(objectMapper.writeValueAsBytes(node));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to write token", e);
+        }
+    }
+
+    private JsonNode decode(String part) {
+        try {
+            return objectMapper.readTree(decodeBytes(part));
+        } catch (IOException e) {
+            throw new BadCredentialsException("Malformed token", e);
+        }
+    }
+
+    private byte[] decodeBytes(String part) {
+        try {
+            return DECODER.decode(part);
+        } catch (IllegalArgumentException e) {
+            throw new BadCredentialsException("Malformed token", e);
+        }
+    }
+
+    private byte[] sign(SecretKeySpec key, String content) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(content.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign token", e);
+        }
+    }
+
+}
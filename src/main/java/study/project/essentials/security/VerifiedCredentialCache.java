@@ -0,0 +1,130 @@
+package study.project.essentials.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Cache das credenciais (usuário + senha) que já passaram pelo PasswordEncoder.
+ * A chave é um HMAC-SHA256 com uma chave aleatória gerada na inicialização,
+ * a senha em texto puro nunca fica armazenada.
+ */
+@Component
+@EnableConfigurationProperties(CredentialCacheProperties.class)
+@Log4j2
+public class VerifiedCredentialCache {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final CredentialCacheProperties properties;
+    private final Cache<String, VerifiedCredential> cache;
+    // registrado somente com o cache habilitado, desabilitado nenhuma credencial passa por aqui
+    private Timer verificationTimer;
+    private final DoubleAdder savedSeconds = new DoubleAdder();
+    private final SecretKeySpec digestKey;
+
+    public VerifiedCredentialCache(CredentialCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+
+        // chave aleatória por processo, um digest vazado não serve em outra instância
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.digestKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+
+        // métricas: hit/miss do cache, tempo de verificação da senha e tempo economizado (somente habilitado)
+        if (properties.isEnabled()) {
+            bindMetrics(meterRegistry);
+        }
+
+        log.info("Verified credential cache enabled: {}", properties.isEnabled());
+    }
+
+    private void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedCredentials");
+        this.verificationTimer = Timer.builder("essentials.auth.password.verification")
+                .description("Time spent verifying passwords with the PasswordEncoder")
+                .register(meterRegistry);
+        FunctionCounter.builder("essentials.auth.credential.cache.saved", savedSeconds, DoubleAdder::sum)
+                .description("Estimated password verification time avoided by the verified credential cache")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(digestKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            // separador para que "ab" + "c" não gere o mesmo digest de "a" + "bc"
+            mac.update((byte) 0);
+            mac.update(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to digest credentials", e);
+        }
+    }
+
+    public VerifiedCredential get(String digest) {
+        VerifiedCredential verifiedCredential = cache.getIfPresent(digest);
+        if (verifiedCredential != null && verificationTimer != null) {
+            // cada hit evita uma verificação com o tempo médio medido até agora
+            savedSeconds.add(verificationTimer.mean(TimeUnit.SECONDS));
+        }
+        return verifiedCredential;
+    }
+
+    public void put(String digest, VerifiedCredential verifiedCredential) {
+        cache.put(digest, verifiedCredential);
+    }
+
+    public void recordVerification(long nanos) {
+        if (verificationTimer != null) {
+            verificationTimer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // remove todas as credenciais do usuário, chamado quando a linha do ProjectUser muda
+    public void evict(String username) {
+        cache.asMap().values().removeIf(verifiedCredential -> verifiedCredential.getUsername().equals(username));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class VerifiedCredential {
+        private final String username;
+        private final Object principal;
+        private final Collection<? extends GrantedAuthority> authorities;
+    }
+
+}
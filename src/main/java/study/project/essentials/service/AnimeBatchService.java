@@ -0,0 +1,246 @@
+package study.project.essentials.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.event.AnimeChangedEvent;
+import study.project.essentials.exception.BadRequestException;
+import study.project.essentials.exception.BatchItemError;
+import study.project.essentials.exception.BatchValidationException;
+import study.project.essentials.mapper.AnimeMapper;
+import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.repository.AnimeSearchTokenRepository;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.responses.AnimeBatchUpdateResponse;
+import study.project.essentials.util.SearchNameUtil;
+
+import javax.persistence.EntityManagerFactory;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class AnimeBatchService {
+    public static final int MAXIMUM_BATCH_SIZE = 1000;
+    // mesmo tamanho do hibernate.jdbc.batch_size
+    public static final int UPDATE_BATCH_SIZE = 50;
+
+    /* a versão e a data de alteração seguem as mesmas regras do @Version/@UpdateTimestamp da entidade,
+       quando a versão é enviada o anime só é alterado se ela não mudou */
+    private static final String UPDATE_ANIME_SQL = "update anime set name = ?, search_name = ?, version = version + 1, "
+            + "updated_at = ? where id = ? and version = coalesce(?, version)";
+
+    private final AnimeRepository animeRepository;
+    private final AnimeSearchTokenRepository animeSearchTokenRepository;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /* valida todos os itens antes de inserir: se algum for inválido nenhum anime é salvo,
+       os inserts são enviados em lotes de hibernate.jdbc.batch_size no flush da transação */
+    @Transactional
+    public List<Anime> saveAll(List<AnimePostRequestBody> animePostRequestBodies) {
+        validate(animePostRequestBodies);
+
+        List<Anime> animes = animePostRequestBodies.stream()
+                .map(AnimeMapper.INSTANCE::toAnime)
+                .collect(Collectors.toList());
+        List<Anime> savedAnimes = animeRepository.saveAll(animes);
+        animeSearchTokenRepository.insertAll(namesById(savedAnimes.stream(), Anime::getId, Anime::getName));
+        savedAnimes.forEach(anime -> applicationEventPublisher.publishEvent(new AnimeChangedEvent(anime.getId(), anime.getName())));
+        return savedAnimes;
+    }
+
+    /* altera os animes com updates em lote sem consultar cada anime antes, o update que não altera
+       nenhuma linha indica que o id não existe ou que a versão enviada está desatualizada */
+    @Transactional
+    public AnimeBatchUpdateResponse replaceAll(List<AnimePutRequestBody> animePutRequestBodies) {
+        // o mesmo id duas vezes seria alterado duas vezes e contado duas vezes em updated
+        validate(animePutRequestBodies, AnimePutRequestBody::getId);
+
+        Timestamp updatedAt = Timestamp.from(Instant.now());
+        int[][] updateCounts = jdbcTemplate.batchUpdate(UPDATE_ANIME_SQL, animePutRequestBodies, UPDATE_BATCH_SIZE,
+                (preparedStatement, animePutRequestBody) -> {
+                    preparedStatement.setString(1, animePutRequestBody.getName());
+                    preparedStatement.setString(2, SearchNameUtil.normalize(animePutRequestBody.getName()));
+                    preparedStatement.setTimestamp(3, updatedAt);
+                    preparedStatement.setLong(4, animePutRequestBody.getId());
+                    preparedStatement.setObject(5, animePutRequestBody.getVersion(), Types.BIGINT);
+                });
+
+        List<AnimePutRequestBody> updatedAnimes = new ArrayList<>();
+        List<AnimePutRequestBody> unknownAnimes = new ArrayList<>();
+        List<Long> notUpdatedIds = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int updateCount : batch) {
+                AnimePutRequestBody animePutRequestBody = animePutRequestBodies.get(index++);
+                if (updateCount == Statement.SUCCESS_NO_INFO) {
+                    unknownAnimes.add(animePutRequestBody);
+                } else if (updateCount == 0) {
+                    notUpdatedIds.add(animePutRequestBody.getId());
+                } else {
+                    updatedAnimes.add(animePutRequestBody);
+                }
+            }
+        }
+        // alguns drivers respondem SUCCESS_NO_INFO (-2) sem informar se a linha foi alterada, o resultado é conferido no banco
+        resolveUnknownUpdates(unknownAnimes, updatedAnimes, notUpdatedIds);
+
+        List<Long> updatedIds = updatedAnimes.stream().map(AnimePutRequestBody::getId).collect(Collectors.toList());
+        animeSearchTokenRepository.replaceAll(namesById(updatedAnimes.stream(), AnimePutRequestBody::getId,
+                AnimePutRequestBody::getName));
+        // somente os updates confirmados invalidam o índice de nomes e o cache de respostas
+        updatedAnimes.forEach(animePutRequestBody -> applicationEventPublisher.publishEvent(
+                new AnimeChangedEvent(animePutRequestBody.getId(), animePutRequestBody.getName())));
+        evictFromEntityCache(updatedIds);
+
+        // somente quando algum update falhou: os ids que existem tiveram conflito de versão
+        List<Long> conflictIds = findExistingIds(notUpdatedIds);
+        List<Long> missingIds = notUpdatedIds.stream()
+                .filter(id -> !conflictIds.contains(id))
+                .collect(Collectors.toList());
+
+        return AnimeBatchUpdateResponse.builder()
+                .updated(updatedIds.size())
+                .missingIds(missingIds)
+                .conflictIds(conflictIds)
+                .build();
+    }
+
+    /* dentro da transação a linha alterada continua bloqueada: o anime existe com o nome enviado e, quando a versão
+       foi enviada, com a versão seguinte a ela somente se o update foi aplicado */
+    private void resolveUnknownUpdates(List<AnimePutRequestBody> unknownAnimes, List<AnimePutRequestBody> updatedAnimes,
+                                       List<Long> notUpdatedIds) {
+        if (unknownAnimes.isEmpty()) {
+            return;
+        }
+        List<Long> unknownIds = unknownAnimes.stream().map(AnimePutRequestBody::getId).collect(Collectors.toList());
+        // mesma consulta do findExistingIds, trazendo também o nome e a versão
+        Map<Long, Map<String, Object>> currentAnimes = jdbcTemplate.queryForList("select id, name, version from anime "
+                        + "where id in (" + placeholders(unknownIds.size()) + ")", unknownIds.toArray()).stream()
+                .collect(Collectors.toMap(anime -> ((Number) anime.get("id")).longValue(), anime -> anime));
+
+        for (AnimePutRequestBody animePutRequestBody : unknownAnimes) {
+            Map<String, Object> currentAnime = currentAnimes.get(animePutRequestBody.getId());
+            if (currentAnime != null && isApplied(animePutRequestBody, currentAnime)) {
+                updatedAnimes.add(animePutRequestBody);
+            } else {
+                notUpdatedIds.add(animePutRequestBody.getId());
+            }
+        }
+    }
+
+    private static boolean isApplied(AnimePutRequestBody animePutRequestBody, Map<String, Object> currentAnime) {
+        long currentVersion = ((Number) currentAnime.get("version")).longValue();
+        return animePutRequestBody.getName().equals(currentAnime.get("name"))
+                && (animePutRequestBody.getVersion() == null || currentVersion == animePutRequestBody.getVersion() + 1);
+    }
+
+    // os ids do lote são únicos (validate), o LinkedHashMap mantém a ordem da requisição
+    private static <T> Map<Long, String> namesById(Stream<T> animes, Function<T, Long> id, Function<T, String> name) {
+        return animes.collect(Collectors.toMap(id, name, (previous, next) -> next, LinkedHashMap::new));
+    }
+
+    private List<Long> findExistingIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.queryForList("select id from anime where id in (" + placeholders(ids.size()) + ")", Long.class,
+                ids.toArray());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // o update via jdbc não passa pelo hibernate, então o cache de segundo nível é removido manualmente
+    private void evictFromEntityCache(List<Long> ids) {
+        evict(ids);
+
+        // removendo novamente após o commit, evitando que outra requisição guarde o valor antigo
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(ids);
+                }
+            });
+        }
+    }
+
+    private void evict(List<Long> ids) {
+        ids.forEach(id -> entityManagerFactory.getCache().evict(Anime.class, id));
+    }
+
+    private <T> void validate(List<T> requestBodies) {
+        validate(requestBodies, requestBody -> null);
+    }
+
+    // id: identificador que não pode se repetir no lote (null quando o item não tem id)
+    private <T> void validate(List<T> requestBodies, Function<T, Long> id) {
+        if (requestBodies == null || requestBodies.isEmpty() || requestBodies.size() > MAXIMUM_BATCH_SIZE) {
+            throw new BadRequestException(String.format("The batch must have between 1 and %d animes", MAXIMUM_BATCH_SIZE));
+        }
+
+        List<BatchItemError> errors = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        for (int index = 0; index < requestBodies.size(); index++) {
+            T requestBody = requestBodies.get(index);
+            if (requestBody == null) {
+                errors.add(BatchItemError.builder().index(index).fieldsMessage("The anime cannot be null").build());
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(requestBody);
+            if (!violations.isEmpty()) {
+                errors.add(toBatchItemError(index, violations));
+                continue;
+            }
+            Long itemId = id.apply(requestBody);
+            if (itemId != null && !ids.add(itemId)) {
+                errors.add(BatchItemError.builder().index(index).fields("id")
+                        .fieldsMessage("The id is repeated in the batch").build());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BatchValidationException(errors);
+        }
+    }
+
+    private static <T> BatchItemError toBatchItemError(int index, Set<ConstraintViolation<T>> violations) {
+        // ordenando pelo campo para a resposta ser sempre a mesma
+        List<ConstraintViolation<T>> sorted = violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .collect(Collectors.toList());
+
+        return BatchItemError.builder()
+                .index(index)
+                .fields(sorted.stream().map(violation -> violation.getPropertyPath().toString())
+                        .collect(Collectors.joining(", ")))
+                .fieldsMessage(sorted.stream().map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining(", ")))
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package study.project.essentials.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.project.essentials.repository.AnimeRepository;
+
+import java.util.OptionalLong;
+
+/**
+ * Total aproximado de animes, atualizado periodicamente em vez de
+ * executar um count(*) em cada requisição paginada.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class AnimeCountCache {
+    private static final long UNKNOWN = -1;
+
+    private final AnimeRepository animeRepository;
+
+    private volatile long count = UNKNOWN;
+
+    @Scheduled(fixedDelayString = "${essentials.anime.approximate-count.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            count = animeRepository.count();
+        } catch (RuntimeException e) {
+            // mantém o último valor conhecido até a próxima atualização
+            log.warn("Unable to refresh the approximate anime count", e);
+        }
+    }
+
+    // vazio enquanto a primeira contagem não terminar
+    public OptionalLong getApproximateCount() {
+        long current = count;
+        return current == UNKNOWN ? OptionalLong.empty() : OptionalLong.of(current);
+    }
+
+}
@@ -0,0 +1,186 @@
+package study.project.essentials.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.project.essentials.event.AnimeChangedEvent;
+import study.project.essentials.responses.AnimeSuggestion;
+import study.project.essentials.util.SearchNameUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória dos nomes dos animes usado pelo /animes/suggest (typeahead).
+ * Textos com até 2 letras são buscados pelo início das palavras, os maiores pelos trigramas
+ * do nome normalizado, encontrando o texto em qualquer posição do nome sem consultar o banco.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class AnimeNameIndex {
+    public static final int MAXIMUM_LIMIT = 50;
+
+    private static final int GRAM_SIZE = 3;
+    private static final String SELECT_SQL = "select id, name from anime";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Index index = new Index();
+    // alterações recebidas durante a reconstrução, reaplicadas no índice novo
+    private List<AnimeChangedEvent> pendingChanges;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${essentials.anime.suggest.rebuild-interval:PT10M}",
+            fixedDelayString = "${essentials.anime.suggest.rebuild-interval:PT10M}")
+    public void rebuild() {
+        synchronized (this) {
+            if (pendingChanges != null) {
+                return;
+            }
+            pendingChanges = new ArrayList<>();
+        }
+
+        Index rebuilt = new Index();
+        try {
+            jdbcTemplate.query(SELECT_SQL, resultSet -> {
+                rebuilt.put(resultSet.getLong("id"), resultSet.getString("name"));
+            });
+        } finally {
+            synchronized (this) {
+                pendingChanges.forEach(change -> rebuilt.put(change.getId(), change.getName()));
+                pendingChanges = null;
+                index = rebuilt;
+            }
+        }
+        log.info("Anime name index rebuilt with {} anime(s)", rebuilt.size());
+    }
+
+    // executado depois do commit, o índice não recebe nomes de transações desfeitas
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        put(event);
+    }
+
+    public synchronized void put(AnimeChangedEvent change) {
+        index.put(change.getId(), change.getName());
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    public List<AnimeSuggestion> suggest(String text, int limit) {
+        return index.search(SearchNameUtil.normalize(text), Math.min(Math.max(limit, 1), MAXIMUM_LIMIT));
+    }
+
+    private static final class Index {
+        private final Map<Long, String> names = new ConcurrentHashMap<>();
+        private final Map<Long, String> searchNames = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+
+        int size() {
+            return names.size();
+        }
+
+        void put(long id, String name) {
+            String searchName = SearchNameUtil.normalize(name);
+            String previous = searchNames.put(id, searchName == null ? "" : searchName);
+            names.put(id, name == null ? "" : name);
+            if (previous != null) {
+                keys(previous).forEach(key -> {
+                    Set<Long> ids = grams.get(key);
+                    if (ids != null) {
+                        ids.remove(id);
+                    }
+                });
+            }
+            keys(searchNames.get(id)).forEach(key -> grams.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id));
+        }
+
+        List<AnimeSuggestion> search(String text, int limit) {
+            if (text == null || text.isEmpty()) {
+                return List.of();
+            }
+
+            // o candidato precisa estar em todos os trigramas do texto, começando pelo menor conjunto
+            Set<Long> candidates = null;
+            for (String key : queryKeys(text)) {
+                Set<Long> ids = grams.getOrDefault(key, Set.of());
+                if (candidates == null || ids.size() < candidates.size()) {
+                    candidates = ids;
+                }
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Comparator<Long> byRelevance = Comparator.<Long>comparingInt(id -> score(searchNames.get(id), text))
+                    .thenComparingInt(id -> searchNames.get(id).length())
+                    .thenComparing(id -> id);
+
+            // mantém somente os "limit" melhores, o topo da fila é o pior deles
+            PriorityQueue<Long> best = new PriorityQueue<>(limit + 1, byRelevance.reversed());
+            for (Long id : candidates) {
+                String searchName = searchNames.get(id);
+                if (searchName == null || !searchName.contains(text)) {
+                    continue;
+                }
+                best.add(id);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(best);
+            ids.sort(byRelevance);
+            List<AnimeSuggestion> suggestions = new ArrayList<>(ids.size());
+            ids.forEach(id -> suggestions.add(new AnimeSuggestion(id, names.get(id))));
+            return suggestions;
+        }
+
+        // 0 >> o nome começa com o texto, 1 >> uma palavra começa com o texto, 2 >> o texto está no meio da palavra
+        private static int score(String searchName, String text) {
+            if (searchName.startsWith(text)) {
+                return 0;
+            }
+            return searchName.contains(" " + text) ? 1 : 2;
+        }
+
+        // trigramas do nome e o início (1 e 2 letras) de cada palavra
+        private static Set<String> keys(String searchName) {
+            Set<String> keys = new HashSet<>();
+            for (String word : searchName.split(" ")) {
+                for (int length = 1; length < GRAM_SIZE && length <= word.length(); length++) {
+                    keys.add("^" + word.substring(0, length));
+                }
+            }
+            for (int start = 0; start + GRAM_SIZE <= searchName.length(); start++) {
+                keys.add(searchName.substring(start, start + GRAM_SIZE));
+            }
+            return keys;
+        }
+
+        private static List<String> queryKeys(String text) {
+            if (text.length() < GRAM_SIZE) {
+                return List.of("^" + text);
+            }
+            List<String> keys = new ArrayList<>();
+            for (int start = 0; start + GRAM_SIZE <= text.length(); start++) {
+                keys.add(text.substring(start, start + GRAM_SIZE));
+            }
+            return keys;
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package study.project.essentials.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.project.essentials.event.AnimeChangedEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respostas das listagens de animes mais acessadas, guardadas já serializadas e compactadas (gzip).
+ * Um acerto copia os bytes para a resposta sem consultar o banco e sem passar pelo jackson.
+ * Qualquer anime criado ou alterado (AnimeChangedEvent) remove todas as respostas.
+ * Com réplicas de leitura nenhuma resposta é guardada durante replicaLag depois da alteração:
+ * uma réplica atrasada ainda pode devolver os animes antigos e a resposta ficaria guardada até o ttl.
+ */
+public class AnimeResponseCache {
+    private final Cache<String, CachedResponse> responses;
+
+    // incrementada a cada alteração, respostas montadas antes dela não são guardadas
+    private final AtomicLong generation = new AtomicLong();
+
+    private final long replicaLagNanos;
+    // System.nanoTime() da última alteração
+    private volatile long changedAt;
+
+    public AnimeResponseCache(long maximumBytes, Duration ttl, Duration replicaLag) {
+        this.replicaLagNanos = replicaLag.toNanos();
+        this.changedAt = System.nanoTime() - replicaLagNanos;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.getGzippedBody().length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Cache<String, CachedResponse> getResponses() {
+        return responses;
+    }
+
+    public Optional<CachedResponse> get(String key) {
+        return Optional.ofNullable(responses.getIfPresent(key));
+    }
+
+    // lida antes de executar a consulta e informada no put
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    /* descarta a resposta quando algum anime mudou desde o início da requisição que a montou
+       ou quando a última alteração pode não ter chegado às réplicas */
+    public void put(String key, long generation, String contentType, String eTag, byte[] body) {
+        if (System.nanoTime() - changedAt < replicaLagNanos) {
+            return;
+        }
+        CachedResponse response = new CachedResponse(contentType, eTag, body.length, gzip(body));
+        if (generation == this.generation.get()) {
+            responses.put(key, response);
+            // a alteração pode ter acontecido entre a verificação e o put
+            if (generation != this.generation.get()) {
+                responses.invalidate(key);
+            }
+        }
+    }
+
+    // executado depois do commit, as requisições seguintes já enxergam a alteração no banco
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        changedAt = System.nanoTime();
+        generation.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(32, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class CachedResponse {
+        private final String contentType;
+        // null quando o endpoint não envia ETag
+        private final String eTag;
+        private final int length;
+        private final byte[] gzippedBody;
+    }
+
+}
@@ -0,0 +1,81 @@
+package study.project.essentials.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.project.essentials.repository.AnimeSearchTokenRepository;
+import study.project.essentials.util.SearchNameUtil;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Preenche a coluna search_name e as palavras da anime_search_token dos animes salvos antes delas existirem,
+ * os animes novos e alterados recebem os valores pela própria entidade e pelos services.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class AnimeSearchNameBackfill {
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_SQL =
+            "select id, name from anime where search_name is null and id > ? order by id limit " + BATCH_SIZE;
+    private static final String UPDATE_SQL = "update anime set search_name = ? where id = ?";
+    private static final String SELECT_WITHOUT_TOKENS_SQL = "select a.id, a.name from anime a where a.id > ? and not exists "
+            + "(select 1 from anime_search_token t where t.anime_id = a.id) order by a.id limit " + BATCH_SIZE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnimeSearchTokenRepository animeSearchTokenRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long lastId = 0;
+        int updated = 0;
+        List<Map<String, Object>> animes;
+        do {
+            animes = jdbcTemplate.queryForList(SELECT_SQL, lastId);
+            if (animes.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, animes, AnimeBatchService.UPDATE_BATCH_SIZE, (preparedStatement, anime) -> {
+                preparedStatement.setString(1, SearchNameUtil.normalize((String) anime.get("name")));
+                preparedStatement.setLong(2, ((Number) anime.get("id")).longValue());
+            });
+            lastId = ((Number) animes.get(animes.size() - 1).get("id")).longValue();
+            updated += animes.size();
+        } while (animes.size() == BATCH_SIZE);
+
+        if (updated > 0) {
+            log.info("Filled the search name of {} anime(s)", updated);
+        }
+        backfillTokens();
+    }
+
+    // nomes sem nenhuma letra ou número não possuem palavras e são lidos novamente a cada inicialização
+    private void backfillTokens() {
+        long lastId = 0;
+        int filled = 0;
+        List<Map<String, Object>> animes;
+        do {
+            animes = jdbcTemplate.queryForList(SELECT_WITHOUT_TOKENS_SQL, lastId);
+            if (animes.isEmpty()) {
+                break;
+            }
+            Map<Long, String> namesById = new LinkedHashMap<>();
+            animes.forEach(anime -> namesById.put(((Number) anime.get("id")).longValue(), (String) anime.get("name")));
+            animeSearchTokenRepository.insertAll(namesById);
+            lastId = ((Number) animes.get(animes.size() - 1).get("id")).longValue();
+            filled += animes.size();
+        } while (animes.size() == BATCH_SIZE);
+
+        if (filled > 0) {
+            log.info("Filled the search tokens of {} anime(s)", filled);
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package study.project.essentials.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ * Ajusta a anime_seq para começar depois do maior id da tabela anime.
+ * Em um banco já existente a sequence (ou a tabela que a emula no mysql) é criada pelo hibernate começando em 1
+ * e os inserts repetiriam os ids dos animes salvos antes dela.
+ */
+@Component
+@Log4j2
+public class AnimeSequenceInitializer {
+    public static final String SEQUENCE_NAME = "anime_seq";
+
+    private static final String MAX_ID_SQL = "select coalesce(max(id), 0) from anime";
+    // pooled-lo: o valor da tabela é o primeiro id do próximo bloco
+    private static final String UPDATE_TABLE_SQL = "update " + SEQUENCE_NAME + " set next_val = ? where next_val <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    // recebe o EntityManagerFactory para executar depois do ddl-auto criar a tabela e a sequence
+    public AnimeSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    // executa na criação do contexto, antes do servidor aceitar requisições
+    @PostConstruct
+    public void initialize() {
+        long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        if (maxId == 0) {
+            return;
+        }
+
+        if (isSequenceTable()) {
+            if (jdbcTemplate.update(UPDATE_TABLE_SQL, maxId + 1, maxId) > 0) {
+                log.info("Moved {} to start after the anime id {}", SEQUENCE_NAME, maxId);
+            }
+            return;
+        }
+
+        // a consulta consome um bloco da sequence, o que só deixa um intervalo de ids sem uso
+        long nextValue = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(SEQUENCE_NAME), Long.class);
+        if (nextValue <= maxId) {
+            jdbcTemplate.execute("alter sequence " + SEQUENCE_NAME + " restart with " + (maxId + 1));
+            log.info("Moved {} to start after the anime id {}", SEQUENCE_NAME, maxId);
+        }
+    }
+
+    // no mysql o hibernate emula a sequence com uma tabela de uma linha (next_val)
+    private boolean isSequenceTable() {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String tableName = metaData.storesUpperCaseIdentifiers() ? SEQUENCE_NAME.toUpperCase() : SEQUENCE_NAME;
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, tableName, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        });
+    }
+
+}
@@ -1,37 +1,151 @@
 package study.project.essentials.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.project.essentials.domain.Anime;
+import study.project.essentials.domain.AnimeVersion;
+import study.project.essentials.event.AnimeChangedEvent;
 import study.project.essentials.exception.BadRequestException;
+import study.project.essentials.exception.ConflictException;
 import study.project.essentials.mapper.AnimeMapper;
 import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.repository.AnimeSearchTokenRepository;
 import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimeSearchMode;
 import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.responses.AnimeResponse;
+import study.project.essentials.util.CursorUtil;
+import study.project.essentials.util.SearchNameUtil;
+import study.project.essentials.wrapper.KeysetResponse;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AnimeService {
+    public static final int MAXIMUM_KEYSET_SIZE = 100;
+    // tentativas do replace sem versão quando outra transação altera o mesmo anime
+    public static final int MAXIMUM_REPLACE_ATTEMPTS = 3;
 
     private final AnimeRepository animeRepository;
+    private final AnimeSearchTokenRepository animeSearchTokenRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
+    /* consultas em transações somente leitura: o hibernate carrega as entidades sem a cópia do estado para o
+       dirty checking, com flush MANUAL e sem flush no commit. Executadas em uma réplica quando
+       essentials.datasource.routing.replicas estiver configurado */
+    @Transactional(readOnly = true)
     public Page<Anime> listAll(Pageable pageable) {
         return animeRepository.findAll(pageable);
     }
 
-    public List<Anime> listAllNonPageable() {
-        return animeRepository.findAll();
+    // os animes da página das versões, consultados pelo id e montados direto na resposta
+    @Transactional(readOnly = true)
+    public Page<AnimeResponse> listAllByVersions(Page<AnimeVersion> versions) {
+        List<Long> ids = versions.map(AnimeVersion::getId).getContent();
+        Map<Long, AnimeResponse> animes = ids.isEmpty() ? Map.of() : animeRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(AnimeResponse::getId, Function.identity()));
+
+        // mantendo a ordem da página
+        List<AnimeResponse> content = ids.stream()
+                .map(animes::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, versions.getPageable(), versions.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<AnimeVersion> listVersions(Pageable pageable) {
+        return animeRepository.findVersionsBy(pageable);
+    }
+
+    // página sem o total de elementos, somente informa se existe a próxima página
+    @Transactional(readOnly = true)
+    public Slice<Anime> listAllSlice(Pageable pageable) {
+        return animeRepository.findAllBy(pageable);
+    }
+
+    /* paginação por chave: busca os animes com id maior que o cursor,
+       a latência não depende da profundidade da página e não executa o count */
+    @Transactional(readOnly = true)
+    public KeysetResponse<Anime> listAfter(String after, int size) {
+        if (size < 1 || size > MAXIMUM_KEYSET_SIZE) {
+            throw new BadRequestException(String.format("The size must be between 1 and %d", MAXIMUM_KEYSET_SIZE));
+        }
+        long lastId = after == null || after.isEmpty() ? 0 : CursorUtil.decode(after);
+
+        // busca um elemento a mais para saber se existe a próxima página
+        List<Anime> animes = animeRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, size + 1));
+        boolean hasNext = animes.size() > size;
+        List<Anime> content = hasNext ? animes.subList(0, size) : animes;
+
+        return KeysetResponse.<Anime>builder()
+                .content(content)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorUtil.encode(content.get(size - 1).getId()) : null)
+                .build();
     }
 
-    public List<Anime> findByName(String name) {
-        return animeRepository.findByName(name);
+    @Transactional(readOnly = true)
+    public List<AnimeResponse> listAllNonPageable() {
+        return animeRepository.findAllResponsesBy();
     }
 
+    /* percorre todos os animes sem carregar a tabela em memória,
+       cada anime é removido do contexto de persistência depois de consumido */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Anime> consumer) {
+        try (Stream<Anime> animes = animeRepository.streamAllByOrderByIdAsc()) {
+            animes.forEach(anime -> {
+                consumer.accept(anime);
+                entityManager.detach(anime);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<AnimeResponse> findByName(String name, Pageable pageable) {
+        return animeRepository.findByName(name, pageable);
+    }
+
+    // busca paginada pelo nome normalizado, sem diferenciar maiúsculas e acentos
+    @Transactional(readOnly = true)
+    public Slice<Anime> search(String name, AnimeSearchMode mode, Pageable pageable) {
+        String searchName = SearchNameUtil.normalize(name);
+        if (searchName == null || searchName.isEmpty()) {
+            throw new BadRequestException("The name must have at least one letter or number");
+        }
+
+        switch (mode) {
+            case EXACT:
+                return animeRepository.findBySearchName(searchName, pageable);
+            case PREFIX:
+                return animeRepository.findBySearchNameStartingWith(searchName, pageable);
+            default:
+                return animeRepository.searchByTokens(SearchNameUtil.tokenize(searchName), pageable);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public Anime findByIdOrThrowBadRequestException(long id) {
         return animeRepository.findById(id)
                 .orElseThrow(() -> new BadRequestException("Anime not Found"));
@@ -39,14 +153,41 @@ public class AnimeService {
 
     @Transactional
     public Anime save(AnimePostRequestBody animePostRequestBody) {
-       return animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+       Anime savedAnime = animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+       animeSearchTokenRepository.insertAll(Map.of(savedAnime.getId(), savedAnime.getName()));
+       applicationEventPublisher.publishEvent(new AnimeChangedEvent(savedAnime.getId(), savedAnime.getName()));
+       return savedAnime;
     }
 
+    /* bloqueio otimista: o update só acontece se a versão não mudou desde a leitura.
+       Com a versão do cliente o conflito é devolvido (409), sem ela a alteração sobrescreve o nome
+       (o mesmo resultado em qualquer tentativa) e é repetida até MAXIMUM_REPLACE_ATTEMPTS vezes */
     public void replace(AnimePutRequestBody animePutRequestBody) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Anime savedAnime = transactionTemplate.execute(status -> replaceOnce(animePutRequestBody));
+                applicationEventPublisher.publishEvent(new AnimeChangedEvent(savedAnime.getId(), savedAnime.getName()));
+                return;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (animePutRequestBody.getVersion() != null || attempt >= MAXIMUM_REPLACE_ATTEMPTS) {
+                    throw new ConflictException("The anime was changed by another request");
+                }
+            }
+        }
+    }
+
+    // alterando o anime carregado, a versão e a data de alteração continuam sendo controladas pelo hibernate
+    private Anime replaceOnce(AnimePutRequestBody animePutRequestBody) {
         Anime savedAnime = findByIdOrThrowBadRequestException(animePutRequestBody.getId());
-        Anime anime = AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
-        anime.setId(savedAnime.getId());
-        animeRepository.save(anime);
+        if (animePutRequestBody.getVersion() != null && animePutRequestBody.getVersion() != savedAnime.getVersion()) {
+            throw new ConflictException(String.format("The anime version is %d but the request has the version %d",
+                    savedAnime.getVersion(), animePutRequestBody.getVersion()));
+        }
+        savedAnime.setName(animePutRequestBody.getName());
+        // o flush executa o update com "where version = ?" ainda dentro da tentativa
+        Anime replacedAnime = animeRepository.saveAndFlush(savedAnime);
+        animeSearchTokenRepository.replaceAll(Map.of(replacedAnime.getId(), replacedAnime.getName()));
+        return replacedAnime;
     }
 
 }
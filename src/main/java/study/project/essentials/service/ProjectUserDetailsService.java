@@ -1,6 +1,8 @@
 package study.project.essentials.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,12 +14,28 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 public class ProjectUserDetailsService implements UserDetailsService {
+    public static final String PROJECT_USERS_CACHE = "projectUsers";
+
     private final ProjectUserRepository projectUserRepository;
 
+    // o usuário fica em cache para não consultar o banco de dados em toda requisição autenticada
     @Override
+    @Cacheable(cacheNames = PROJECT_USERS_CACHE, key = "#username")
     public UserDetails loadUserByUsername(String username) {
         // procurando o usuario caso não encontre explode uma exception
         return Optional.ofNullable(projectUserRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("Project user not found"));
     }
+
+    // remove o usuário do cache, deve ser chamado quando a senha ou as autorizações mudarem
+    @CacheEvict(cacheNames = PROJECT_USERS_CACHE, key = "#username")
+    public void evictUser(String username) {
+        // a remoção é feita pelo @CacheEvict
+    }
+
+    // remove todos os usuários do cache
+    @CacheEvict(cacheNames = PROJECT_USERS_CACHE, allEntries = true)
+    public void evictAllUsers() {
+        // a remoção é feita pelo @CacheEvict
+    }
 }
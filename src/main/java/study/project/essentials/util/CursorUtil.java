@@ -0,0 +1,28 @@
+package study.project.essentials.util;
+
+import study.project.essentials.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// cursor opaco da paginação por chave (keyset), o cliente não deve depender do conteúdo
+public final class CursorUtil {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorUtil() {
+    }
+
+    public static String encode(long id) {
+        return ENCODER.encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decode(String cursor) {
+        try {
+            return Long.parseLong(new String(DECODER.decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException também é um IllegalArgumentException
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
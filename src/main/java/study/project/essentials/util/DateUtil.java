@@ -7,7 +7,10 @@ import java.time.format.DateTimeFormatter;
 
 @Component
 public class DateUtil {
+    // o DateTimeFormatter é imutável e thread-safe, o padrão é interpretado uma única vez
+    private static final DateTimeFormatter DATABASE_STYLE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     public String formatLocalDateTimeToDatabaseStyle(LocalDateTime localDateTime) {
-        return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").format(localDateTime);
+        return DATABASE_STYLE.format(localDateTime);
     }
 }
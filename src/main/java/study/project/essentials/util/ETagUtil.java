@@ -0,0 +1,32 @@
+package study.project.essentials.util;
+
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.domain.AnimeVersion;
+
+import java.nio.charset.StandardCharsets;
+
+// ETags fortes calculados a partir do id e da versão dos animes
+public final class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    public static String of(Anime anime) {
+        return "\"" + anime.getId() + "-" + anime.getVersion() + "\"";
+    }
+
+    /* a página muda quando muda o conteúdo, a versão de um dos animes ou o total
+       (um anime inserido em outra página também altera a quantidade de páginas) */
+    public static String of(Page<AnimeVersion> page) {
+        StringBuilder state = new StringBuilder()
+                .append(page.getNumber()).append(':')
+                .append(page.getSize()).append(':')
+                .append(page.getTotalElements()).append(':')
+                .append(page.getSort());
+        page.forEach(anime -> state.append(':').append(anime.getId()).append('-').append(anime.getVersion()));
+        // mesmo hash usado pelo ShallowEtagHeaderFilter do spring
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
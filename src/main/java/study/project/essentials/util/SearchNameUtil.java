@@ -0,0 +1,47 @@
+package study.project.essentials.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/* normalização do nome usada na coluna search_name e nas buscas: sem acentos, minúsculo
+   e com a pontuação trocada por um espaço (ex: "Re:Zero" >> "re zero") */
+public final class SearchNameUtil {
+    public static final int MAXIMUM_TOKENS = 10;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchNameUtil() {
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String withoutDiacritics = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(withoutDiacritics.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // palavras distintas do texto buscado, somente letras e números
+    public static List<String> tokenize(String name) {
+        return words(name).stream()
+                .limit(MAXIMUM_TOKENS)
+                .collect(Collectors.toList());
+    }
+
+    // todas as palavras distintas do nome normalizado, gravadas na tabela anime_search_token
+    public static List<String> words(String name) {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            return List.of();
+        }
+        return Arrays.stream(normalized.split(" "))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,21 @@
+package study.project.essentials.wrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// página da paginação por chave, não possui o total de elementos (não executa o count)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeysetResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    // cursor a ser enviado no parâmetro after para obter a próxima página, nulo na última página
+    private String nextCursor;
+}
@@ -0,0 +1,37 @@
+package study.project.essentials.wrapper;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Setter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+// equivalente ao PageableResponse para as respostas sem o total de elementos (Slice)
+@Setter
+public class SliceableResponse<T> extends SliceImpl<T> {
+
+    // atributos
+    private boolean first;
+    private boolean last;
+    private int numberOfElements;
+
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    public SliceableResponse(@JsonProperty("content") List<T> content,
+                             @JsonProperty("number") int number,
+                             @JsonProperty("size") int size,
+                             @JsonProperty("last") boolean last,
+                             @JsonProperty("first") boolean first,
+                             @JsonProperty("numberOfElements") int numberOfElements,
+                             @JsonProperty("pageable") JsonNode pageable,
+                             @JsonProperty("sort") JsonNode sort) {
+        super(content, PageRequest.of(number, Math.max(size, 1)), !last);
+
+        this.last = last;
+        this.first = first;
+        this.numberOfElements = numberOfElements;
+    }
+
+}
@@ -0,0 +1,219 @@
+package study.project.essentials.reactive.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.reactive.repository.ReactiveAnimeRepository;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.util.AnimeCreator;
+import study.project.essentials.util.AnimePostRequestBodyCreator;
+
+// iniciando o spring no perfil reactive (webflux + r2dbc) com um h2 em memória
+// o tipo da aplicação é definido pelo teste antes do perfil ser lido, por isso o web-application-type repetido
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-essentials",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:schema-reactive-h2.sql"
+})
+@ActiveProfiles("reactive")
+class ReactiveAnimeControllerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveAnimeRepository reactiveAnimeRepository;
+
+    // limpando a tabela e criando um usuario comum e um administrador no banco de dados
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("delete from anime").fetch().rowsUpdated().block();
+        databaseClient.sql("delete from project_user").fetch().rowsUpdated().block();
+        databaseClient.sql("insert into project_user (name, username, password, authorities) values "
+                        + "('Lon Hammond', 'Lon', :password, 'ROLE_USER'), "
+                        + "('Mia Hammond', 'Mia', :password, 'ROLE_USER,ROLE_ADMIN')")
+                .bind("password", "{bcrypt}$2a$10$p6/kb8QCnI08fibnlUcdhOlntgM8fwu3NGSNfHfIDYgSQ.zriZakK")
+                .fetch()
+                .rowsUpdated()
+                .block();
+    }
+
+    private Anime saveAnime() {
+        return reactiveAnimeRepository.insert(AnimeCreator.createAnimeToBeSaved()).block();
+    }
+
+    @Test
+    @DisplayName("list returns a page of animes when successful")
+    void listReturnsPageOfAnimesWhenSuccessful() {
+        Anime savedAnime = saveAnime();
+
+        webTestClient.get().uri("/animes")
+                .headers(headers -> headers.setBasicAuth("Lon", "project"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(savedAnime.getId())
+                .jsonPath("$.content[0].name").isEqualTo(savedAnime.getName())
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.size").isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("list returns 400 when the sort property does not exist")
+    void listReturns400WhenSortPropertyDoesNotExist() {
+        webTestClient.get().uri("/animes?sort=searchName")
+                .headers(headers -> headers.setBasicAuth("Lon", "project"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Bad Request Exception, Check the Documentation");
+    }
+
+    @Test
+    @DisplayName("findById returns anime when successful")
+    void findByIdReturnsAnimeWhenSuccessful() {
+        Anime savedAnime = saveAnime();
+
+        Anime anime = webTestClient.get().uri("/animes/{id}", savedAnime.getId())
+                .headers(headers -> headers.setBasicAuth("Lon", "project"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Anime.class)
+                .returnResult()
+                .getResponseBody();
+
+        Assertions.assertThat(anime).isNotNull();
+        Assertions.assertThat(anime.getId()).isEqualTo(savedAnime.getId());
+        Assertions.assertThat(anime.getVersion()).isZero();
+        Assertions.assertThat(anime.getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("findById returns 400 with the same details as the servlet api when anime is not found")
+    void findByIdReturns400WhenAnimeIsNotFound() {
+        webTestClient.get().uri("/animes/{id}", 1)
+                .headers(headers -> headers.setBasicAuth("Lon", "project"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Bad Request Exception, Check the Documentation")
+                .jsonPath("$.details").isEqualTo("Anime not Found")
+                .jsonPath("$.status").isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("findByName returns a list of animes when successful")
+    void findByNameReturnsListOfAnimesWhenSuccessful() {
+        Anime savedAnime = saveAnime();
+
+        webTestClient.get().uri("/animes/find?name={name}", savedAnime.getName())
+                .headers(headers -> headers.setBasicAuth("Lon", "project"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(savedAnime.getId())
+                .jsonPath("$[0].name").isEqualTo(savedAnime.getName());
+    }
+
+    @Test
+    @DisplayName("save returns anime with an id from anime_seq when successful")
+    void saveReturnsAnimeWhenSuccessful() {
+        Anime anime = webTestClient.post().uri("/animes")
+                .headers(headers -> headers.setBasicAuth("Lon", "project"))
+                .bodyValue(AnimePostRequestBodyCreator.createAnimePostRequestBody())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Anime.class)
+                .returnResult()
+                .getResponseBody();
+
+        Assertions.assertThat(anime).isNotNull();
+        Assertions.assertThat(anime.getId()).isNotNull();
+        Assertions.assertThat(reactiveAnimeRepository.findById(anime.getId()).block())
+                .isNotNull()
+                .extracting(Anime::getName)
+                .isEqualTo(anime.getName());
+    }
+
+    @Test
+    @DisplayName("save returns 400 with the invalid fields when name is empty")
+    void saveReturns400WhenNameIsEmpty() {
+        webTestClient.post().uri("/animes")
+                .headers(headers -> headers.setBasicAuth("Lon", "project"))
+                .bodyValue(AnimePostRequestBody.builder().name("").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Bad Request Exception, Invalid Fields")
+                .jsonPath("$.fields").isEqualTo("name");
+    }
+
+    @Test
+    @DisplayName("replace updates anime and increments the version when successful")
+    void replaceUpdatesAnimeWhenSuccessful() {
+        Anime savedAnime = saveAnime();
+
+        webTestClient.put().uri("/animes/admin")
+                .headers(headers -> headers.setBasicAuth("Mia", "project"))
+                .bodyValue(AnimePutRequestBody.builder().id(savedAnime.getId()).name("Hajime no Ippo 2").version(0L).build())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        Anime anime = reactiveAnimeRepository.findById(savedAnime.getId()).block();
+        Assertions.assertThat(anime).isNotNull();
+        Assertions.assertThat(anime.getName()).isEqualTo("Hajime no Ippo 2");
+        Assertions.assertThat(anime.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("replace returns 409 when the version is outdated")
+    void replaceReturns409WhenVersionIsOutdated() {
+        Anime savedAnime = saveAnime();
+        reactiveAnimeRepository.update(savedAnime).block();
+
+        webTestClient.put().uri("/animes/admin")
+                .headers(headers -> headers.setBasicAuth("Mia", "project"))
+                .bodyValue(AnimePutRequestBody.builder().id(savedAnime.getId()).name("Hajime no Ippo 2").version(0L).build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Conflict Exception, Reload the Resource and Try Again");
+    }
+
+    @Test
+    @DisplayName("replace returns 403 when user is not admin")
+    void replaceReturns403WhenUserIsNotAdmin() {
+        Anime savedAnime = saveAnime();
+
+        webTestClient.put().uri("/animes/admin")
+                .headers(headers -> headers.setBasicAuth("Lon", "project"))
+                .bodyValue(AnimePutRequestBody.builder().id(savedAnime.getId()).name("Hajime no Ippo 2").build())
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    @DisplayName("list returns 401 when credentials are missing")
+    void listReturns401WhenCredentialsAreMissing() {
+        webTestClient.get().uri("/animes")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+}
@@ -0,0 +1,150 @@
+package study.project.essentials.reactive.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.exception.BadRequestException;
+import study.project.essentials.exception.ConflictException;
+import study.project.essentials.reactive.repository.ReactiveAnimeRepository;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.service.AnimeService;
+import study.project.essentials.util.AnimeCreator;
+import study.project.essentials.util.AnimePostRequestBodyCreator;
+import study.project.essentials.util.AnimePutRequestBodyCreator;
+
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+class ReactiveAnimeServiceTest {
+
+    @InjectMocks
+    private ReactiveAnimeService reactiveAnimeService;
+
+    @Mock
+    private ReactiveAnimeRepository reactiveAnimeRepositoryMock;
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(reactiveAnimeRepositoryMock.findAll(ArgumentMatchers.any(PageRequest.class)))
+                .thenReturn(Mono.just(new PageImpl<>(List.of(AnimeCreator.createValidAnime()))));
+
+        // um anime novo a cada leitura, o replace altera o anime carregado
+        BDDMockito.when(reactiveAnimeRepositoryMock.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Mono.fromSupplier(AnimeCreator::createValidAnime));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.findByName(ArgumentMatchers.anyString()))
+                .thenReturn(Flux.just(AnimeCreator.createValidAnime()));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.insert(ArgumentMatchers.any(Anime.class)))
+                .thenReturn(Mono.just(AnimeCreator.createValidAnime()));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.update(ArgumentMatchers.any(Anime.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("listAll returns page of animes when successful")
+    void listAllReturnsPageOfAnimesWhenSuccessful() {
+        StepVerifier.create(reactiveAnimeService.listAll(PageRequest.of(1, 1)))
+                .expectNextMatches(page -> page.getContent().equals(List.of(AnimeCreator.createValidAnime())))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findByName returns animes when successful")
+    void findByNameReturnsAnimesWhenSuccessful() {
+        StepVerifier.create(reactiveAnimeService.findByName("anime"))
+                .expectNext(AnimeCreator.createValidAnime())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException returns anime when successful")
+    void findByIdOrThrowBadRequestExceptionReturnsAnimeWhenSuccessful() {
+        StepVerifier.create(reactiveAnimeService.findByIdOrThrowBadRequestException(1))
+                .expectNext(AnimeCreator.createValidAnime())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException signals BadRequestException when anime is not found")
+    void findByIdOrThrowBadRequestExceptionSignalsBadRequestExceptionWhenAnimeIsNotFound() {
+        BDDMockito.when(reactiveAnimeRepositoryMock.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveAnimeService.findByIdOrThrowBadRequestException(1))
+                .expectError(BadRequestException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("save returns anime when successful")
+    void saveReturnsAnimeWhenSuccessful() {
+        StepVerifier.create(reactiveAnimeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody()))
+                .expectNext(AnimeCreator.createValidAnime())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("replace updates anime when successful")
+    void replaceUpdatesAnimeWhenSuccessful() {
+        StepVerifier.create(reactiveAnimeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()))
+                .verifyComplete();
+
+        Mockito.verify(reactiveAnimeRepositoryMock)
+                .update(ArgumentMatchers.argThat(anime -> anime.getName().equals(AnimeCreator.createValidUpdatedAnime().getName())));
+    }
+
+    @Test
+    @DisplayName("replace signals ConflictException when the version of the request is outdated")
+    void replaceSignalsConflictExceptionWhenTheVersionIsOutdated() {
+        AnimePutRequestBody animePutRequestBody = AnimePutRequestBodyCreator.createAnimePutRequestBody();
+        animePutRequestBody.setVersion(AnimeCreator.createValidAnime().getVersion() + 1);
+
+        StepVerifier.create(reactiveAnimeService.replace(animePutRequestBody))
+                .expectError(ConflictException.class)
+                .verify();
+        Mockito.verify(reactiveAnimeRepositoryMock, Mockito.never()).update(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("replace retries the update without version when another request changed the anime")
+    void replaceRetriesTheUpdateWithoutVersionWhenAnotherRequestChangedTheAnime() {
+        // a primeira tentativa perde a disputa, a segunda salva
+        BDDMockito.when(reactiveAnimeRepositoryMock.update(ArgumentMatchers.any(Anime.class)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("changed")))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(reactiveAnimeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()))
+                .verifyComplete();
+        Mockito.verify(reactiveAnimeRepositoryMock, Mockito.times(2)).update(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("replace signals ConflictException when every attempt loses to another request")
+    void replaceSignalsConflictExceptionWhenEveryAttemptLosesToAnotherRequest() {
+        BDDMockito.when(reactiveAnimeRepositoryMock.update(ArgumentMatchers.any(Anime.class)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("changed")));
+
+        StepVerifier.create(reactiveAnimeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()))
+                .expectError(ConflictException.class)
+                .verify();
+        Mockito.verify(reactiveAnimeRepositoryMock, Mockito.times(AnimeService.MAXIMUM_REPLACE_ATTEMPTS))
+                .update(ArgumentMatchers.any());
+    }
+
+}
@@ -0,0 +1,20 @@
+package study.project.essentials.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Variante reativa da api de animes (webflux + r2dbc), compilada somente no perfil maven reactive:
+ * mvn -Preactive spring-boot:run -Dspring-boot.run.main-class=study.project.essentials.reactive.ReactiveEssentialsApplication
+ * Somente os beans deste pacote são carregados, a configuração fica no perfil spring reactive do application.yml.
+ */
+@SpringBootApplication
+public class ReactiveEssentialsApplication {
+
+	public static void main(String[] args) {
+		SpringApplication application = new SpringApplication(ReactiveEssentialsApplication.class);
+		application.setAdditionalProfiles("reactive");
+		application.run(args);
+	}
+
+}
@@ -0,0 +1,62 @@
+package study.project.essentials.reactive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
+import study.project.essentials.reactive.service.ReactiveProjectUserDetailsService;
+
+// mesmas regras do SecurityConfig para o perfil reactive (somente http basic e form login)
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        // autorização de requisições no protocolo http
+        return http.csrf().disable()
+                .authorizeExchange()
+                .pathMatchers("/animes/admin/**").hasRole("ADMIN")
+                .pathMatchers("/animes/**").hasRole("USER")
+                .anyExchange()
+                .authenticated()
+                .and()
+                .formLogin()
+                .and()
+                .httpBasic()
+                .and()
+                .build();
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        // criptografia de senha
+        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    }
+
+    // usuarios em memória e, quando não encontrados, usuarios no banco de dados
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService(PasswordEncoder passwordEncoder,
+                                                                ReactiveProjectUserDetailsService reactiveProjectUserDetailsService) {
+        MapReactiveUserDetailsService inMemoryUsers = new MapReactiveUserDetailsService(
+                User.withUsername("Noah")
+                        .password(passwordEncoder.encode("project"))
+                        .roles("USER", "ADMIN")
+                        .build(),
+                User.withUsername("Tyler")
+                        .password(passwordEncoder.encode("project"))
+                        .roles("USER")
+                        .build());
+
+        return username -> inMemoryUsers.findByUsername(username)
+                .switchIfEmpty(Mono.defer(() -> reactiveProjectUserDetailsService.findByUsername(username)));
+    }
+
+}
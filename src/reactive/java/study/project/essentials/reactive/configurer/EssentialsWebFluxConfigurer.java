@@ -0,0 +1,29 @@
+package study.project.essentials.reactive.configurer;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+// configuração global do perfil reactive, equivalente ao EssentialsWebMvcConfigurer
+@Configuration
+public class EssentialsWebFluxConfigurer implements WebFluxConfigurer {
+
+    // o tomcat continua no classpath por causa do modo servlet, no perfil reactive o servidor é o reactor netty
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        // configurando a quantidade de elementos em uma página
+        ReactivePageableHandlerMethodArgumentResolver argumentResolver = new ReactivePageableHandlerMethodArgumentResolver();
+        argumentResolver.setFallbackPageable(PageRequest.of(0, 5));
+        configurer.addCustomResolver(argumentResolver);
+    }
+
+}
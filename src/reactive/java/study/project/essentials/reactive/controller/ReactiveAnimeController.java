@@ -0,0 +1,66 @@
+package study.project.essentials.reactive.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.reactive.service.ReactiveAnimeService;
+
+import javax.validation.Valid;
+
+// mesmos caminhos e respostas do AnimeController, atendidos pelo webflux no perfil reactive
+@RestController
+@RequestMapping("animes")
+@Log4j2
+@RequiredArgsConstructor
+public class ReactiveAnimeController {
+
+    private final ReactiveAnimeService reactiveAnimeService;
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<Anime>>> list(Pageable pageable) {
+        return reactiveAnimeService.listAll(pageable).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/{id}")
+    public Mono<ResponseEntity<Anime>> findById(@PathVariable long id) {
+        return reactiveAnimeService.findByIdOrThrowBadRequestException(id).map(ResponseEntity::ok);
+    }
+
+    // obter o usuário autenticado na requisição
+    @GetMapping(path = "by-id/{id}")
+    public Mono<ResponseEntity<Anime>> findByIdAuthenticationPrincipal(@PathVariable long id,
+                                                                       @AuthenticationPrincipal UserDetails userDetails) {
+        log.info(userDetails);
+        return reactiveAnimeService.findByIdOrThrowBadRequestException(id).map(ResponseEntity::ok);
+    }
+
+    // os animes são escritos na resposta conforme chegam do banco
+    @GetMapping(path = "/find")
+    public Flux<Anime> findByName(@RequestParam String name) {
+        return reactiveAnimeService.findByName(name);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Anime>> save(@RequestBody @Valid AnimePostRequestBody animePostRequestBody) {
+        return reactiveAnimeService.save(animePostRequestBody)
+                .map(savedAnime -> new ResponseEntity<>(savedAnime, HttpStatus.CREATED));
+    }
+
+    @PutMapping(path = "/admin")
+    public Mono<ResponseEntity<Void>> replace(@RequestBody AnimePutRequestBody animePutRequestBody) {
+        return reactiveAnimeService.replace(animePutRequestBody)
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+}
@@ -0,0 +1,89 @@
+package study.project.essentials.reactive.handler;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import study.project.essentials.exception.BadRequestException;
+import study.project.essentials.exception.BadRequestExceptionDetails;
+import study.project.essentials.exception.ConflictException;
+import study.project.essentials.exception.ConflictExceptionDetails;
+import study.project.essentials.exception.ExceptionDetails;
+import study.project.essentials.exception.ValidationExceptionDetails;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** mesmas respostas de erro do RestExceptionHandler
+* para as requisições atendidas pelo webflux */
+
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<BadRequestExceptionDetails> handlerBadRequestException(BadRequestException badRequestException) {
+        return new ResponseEntity<>(
+                BadRequestExceptionDetails.builder()
+                    .timestamp(LocalDateTime.now())
+                    .status(HttpStatus.BAD_REQUEST.value())
+                    .title("Bad Request Exception, Check the Documentation")
+                    .details(badRequestException.getMessage())
+                    .developerMessage(badRequestException.getClass().getName())
+                    .build(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({ConflictException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ConflictExceptionDetails> handlerConflictException(RuntimeException conflictException) {
+        return new ResponseEntity<>(
+                ConflictExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .title("Conflict Exception, Reload the Resource and Try Again")
+                        .details(conflictException.getMessage())
+                        .developerMessage(conflictException.getClass().getName())
+                        .build(), HttpStatus.CONFLICT);
+    }
+
+    // equivalente ao MethodArgumentNotValidException do spring mvc
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ValidationExceptionDetails> handlerWebExchangeBindException(WebExchangeBindException exception) {
+        // recebendo todos os campos com erros
+        List<FieldError> fieldErrors = exception.getBindingResult().getFieldErrors();
+
+        // recebendo os campos
+        String fields = fieldErrors.stream().map(FieldError::getField).collect(Collectors.joining(", "));
+
+        // recebendo as mensagens
+        String fieldsMessage = fieldErrors.stream().map(FieldError::getDefaultMessage).collect(Collectors.joining(", "));
+
+        return new ResponseEntity<>(
+                ValidationExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .title("Bad Request Exception, Invalid Fields")
+                        .details("Check the field(s) error")
+                        .developerMessage(exception.getClass().getName())
+                        .fields(fields)
+                        .fieldsMessage(fieldsMessage)
+                        .build(), HttpStatus.BAD_REQUEST);
+    }
+
+    // corpo ilegível, parâmetro inválido, etc (o handleExceptionInternal do RestExceptionHandler)
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ExceptionDetails> handlerResponseStatusException(ResponseStatusException exception) {
+        return new ResponseEntity<>(
+                ExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(exception.getStatus().value())
+                        .title(exception.getCause() == null ? exception.getReason() : exception.getCause().getMessage())
+                        .details(exception.getMessage())
+                        .developerMessage(exception.getClass().getName())
+                        .build(), exception.getResponseHeaders(), exception.getStatus());
+    }
+
+}
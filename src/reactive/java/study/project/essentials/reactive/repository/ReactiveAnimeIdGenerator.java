@@ -0,0 +1,67 @@
+package study.project.essentials.reactive.repository;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/* mesma alocação do hibernate para o Anime (enhanced-sequence "anime_seq", increment 50, pooled-lo):
+   cada consulta reserva um bloco de 50 ids, os dois modos podem inserir na mesma tabela sem repetir ids */
+@Component
+public class ReactiveAnimeIdGenerator {
+    public static final int INCREMENT_SIZE = 50;
+    // tentativas de reservar um bloco quando outra instância altera a anime_seq ao mesmo tempo
+    private static final int MAXIMUM_ALLOCATION_ATTEMPTS = 10;
+
+    private final DatabaseClient databaseClient;
+    // o mysql não tem sequence, o hibernate emula a anime_seq com uma tabela de uma linha (next_val)
+    private final boolean tableSequence;
+
+    // próximo id livre e o fim (exclusivo) do bloco reservado
+    private long next;
+    private long hi;
+
+    public ReactiveAnimeIdGenerator(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.tableSequence = connectionFactory.getMetadata().getName().toLowerCase().contains("mysql");
+    }
+
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (next < hi) {
+                    return Mono.just(next++);
+                }
+            }
+            return allocateBlock().map(this::takeFromBlock);
+        });
+    }
+
+    // outra requisição pode ter reservado um bloco ao mesmo tempo, o último substitui o restante do anterior
+    private synchronized long takeFromBlock(long lo) {
+        next = lo;
+        hi = lo + INCREMENT_SIZE;
+        return next++;
+    }
+
+    private Mono<Long> allocateBlock() {
+        if (!tableSequence) {
+            return databaseClient.sql("select next value for anime_seq")
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        // o update só acontece se ninguém reservou o mesmo bloco entre a leitura e a escrita (igual ao hibernate)
+        return databaseClient.sql("select next_val from anime_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(lo -> databaseClient.sql("update anime_seq set next_val = :hi where next_val = :lo")
+                        .bind("hi", lo + INCREMENT_SIZE)
+                        .bind("lo", lo)
+                        .fetch()
+                        .rowsUpdated()
+                        .filter(updated -> updated == 1)
+                        .map(updated -> lo))
+                .repeatWhenEmpty(MAXIMUM_ALLOCATION_ATTEMPTS, attempts -> attempts);
+    }
+
+}
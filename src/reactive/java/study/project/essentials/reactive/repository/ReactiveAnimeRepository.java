@@ -0,0 +1,162 @@
+package study.project.essentials.reactive.repository;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.exception.BadRequestException;
+import study.project.essentials.util.SearchNameUtil;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/* acesso não bloqueante à tabela anime (r2dbc), usado pelo perfil reactive.
+   As colunas e a versão seguem o mapeamento do hibernate para os dois modos usarem o mesmo banco */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveAnimeRepository {
+    private static final String SELECT_ANIME = "select id, name, version, updated_at from anime";
+    // propriedades aceitas no sort, o nome da coluna nunca vem da requisição
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "version", "version",
+            "updatedAt", "updated_at");
+
+    private final DatabaseClient databaseClient;
+    private final ReactiveAnimeIdGenerator reactiveAnimeIdGenerator;
+
+    public Mono<Page<Anime>> findAll(Pageable pageable) {
+        Mono<Long> total = databaseClient.sql("select count(*) from anime")
+                .map(row -> row.get(0, Long.class))
+                .one();
+        return findAllContent(pageable)
+                .collectList()
+                .zipWith(total, (content, count) -> new PageImpl<>(content, pageable, count));
+    }
+
+    // defer >> o sort inválido é devolvido como erro do Flux e não lançado na montagem
+    private Flux<Anime> findAllContent(Pageable pageable) {
+        return Flux.defer(() -> databaseClient.sql(SELECT_ANIME + orderBy(pageable.getSort()) + " limit :limit offset :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(this::toAnime)
+                .all());
+    }
+
+    public Mono<Anime> findById(long id) {
+        return databaseClient.sql(SELECT_ANIME + " where id = :id")
+                .bind("id", id)
+                .map(this::toAnime)
+                .one();
+    }
+
+    public Flux<Anime> findByName(String name) {
+        return databaseClient.sql(SELECT_ANIME + " where name = :name")
+                .bind("name", name)
+                .map(this::toAnime)
+                .all();
+    }
+
+    // o id vem da anime_seq e a versão começa em 0, como no insert do hibernate
+    public Mono<Anime> insert(Anime anime) {
+        Instant updatedAt = Instant.now();
+        return reactiveAnimeIdGenerator.nextId()
+                .flatMap(id -> databaseClient.sql("insert into anime (id, name, search_name, version, updated_at) "
+                                + "values (:id, :name, :searchName, 0, :updatedAt)")
+                        .bind("id", id)
+                        .bind("name", anime.getName())
+                        .bind("searchName", SearchNameUtil.normalize(anime.getName()))
+                        .bind("updatedAt", toLocalDateTime(updatedAt))
+                        .fetch()
+                        .rowsUpdated()
+                        .then(insertSearchTokens(id, anime.getName()))
+                        .thenReturn(Anime.builder()
+                                .id(id)
+                                .name(anime.getName())
+                                .version(0)
+                                .updatedAt(updatedAt)
+                                .build()));
+    }
+
+    // bloqueio otimista: nenhuma linha alterada significa que a versão mudou desde a leitura
+    public Mono<Anime> update(Anime anime) {
+        Instant updatedAt = Instant.now();
+        return databaseClient.sql("update anime set name = :name, search_name = :searchName, version = version + 1, "
+                        + "updated_at = :updatedAt where id = :id and version = :version")
+                .bind("name", anime.getName())
+                .bind("searchName", SearchNameUtil.normalize(anime.getName()))
+                .bind("updatedAt", toLocalDateTime(updatedAt))
+                .bind("id", anime.getId())
+                .bind("version", anime.getVersion())
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new OptimisticLockingFailureException(
+                                String.format("The anime %d was changed by another transaction", anime.getId())))
+                        : databaseClient.sql("delete from anime_search_token where anime_id = :id")
+                                .bind("id", anime.getId())
+                                .fetch()
+                                .rowsUpdated()
+                                .then(insertSearchTokens(anime.getId(), anime.getName()))
+                                .thenReturn(Anime.builder()
+                                        .id(anime.getId())
+                                        .name(anime.getName())
+                                        .version(anime.getVersion() + 1)
+                                        .updatedAt(updatedAt)
+                                        .build()));
+    }
+
+    // palavras do nome usadas pela busca FULL_TEXT do modo servlet (AnimeSearchTokenRepository)
+    private Mono<Void> insertSearchTokens(long id, String name) {
+        return Flux.fromIterable(SearchNameUtil.words(name))
+                .concatMap(token -> databaseClient.sql("insert into anime_search_token (anime_id, token) values (:id, :token)")
+                        .bind("id", id)
+                        .bind("token", token)
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+
+    private String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " order by id";
+        }
+        return sort.stream()
+                .map(order -> {
+                    String column = SORT_COLUMNS.get(order.getProperty());
+                    if (column == null) {
+                        throw new BadRequestException(String.format("The anime cannot be sorted by %s", order.getProperty()));
+                    }
+                    return column + (order.isAscending() ? " asc" : " desc");
+                })
+                .collect(Collectors.joining(", ", " order by ", ""));
+    }
+
+    private Anime toAnime(Row row) {
+        LocalDateTime updatedAt = row.get("updated_at", LocalDateTime.class);
+        return Anime.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .version(row.get("version", Long.class))
+                .updatedAt(updatedAt == null ? null : updatedAt.atZone(ZoneId.systemDefault()).toInstant())
+                .build();
+    }
+
+    // o hibernate grava o Instant no fuso da jvm, a coluna é um timestamp sem fuso
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+}
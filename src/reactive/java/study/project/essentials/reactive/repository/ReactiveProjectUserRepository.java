@@ -0,0 +1,29 @@
+package study.project.essentials.reactive.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import study.project.essentials.domain.ProjectUser;
+
+// consulta dos usuários do banco de dados no perfil reactive (mesma tabela do ProjectUserRepository)
+@Repository
+@RequiredArgsConstructor
+public class ReactiveProjectUserRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<ProjectUser> findByUsername(String username) {
+        return databaseClient.sql("select id, name, username, password, authorities from project_user where username = :username")
+                .bind("username", username)
+                .map(row -> ProjectUser.builder()
+                        .id(row.get("id", Long.class))
+                        .name(row.get("name", String.class))
+                        .username(row.get("username", String.class))
+                        .password(row.get("password", String.class))
+                        .authorities(row.get("authorities", String.class))
+                        .build())
+                .one();
+    }
+
+}
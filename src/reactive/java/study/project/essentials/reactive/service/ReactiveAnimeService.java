@@ -0,0 +1,70 @@
+package study.project.essentials.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.exception.BadRequestException;
+import study.project.essentials.exception.ConflictException;
+import study.project.essentials.mapper.AnimeMapper;
+import study.project.essentials.reactive.repository.ReactiveAnimeRepository;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.service.AnimeService;
+
+// mesmas regras do AnimeService, sem bloquear a thread enquanto o banco responde
+@Service
+@RequiredArgsConstructor
+public class ReactiveAnimeService {
+
+    private final ReactiveAnimeRepository reactiveAnimeRepository;
+
+    public Mono<Page<Anime>> listAll(Pageable pageable) {
+        return reactiveAnimeRepository.findAll(pageable);
+    }
+
+    public Flux<Anime> findByName(String name) {
+        return reactiveAnimeRepository.findByName(name);
+    }
+
+    public Mono<Anime> findByIdOrThrowBadRequestException(long id) {
+        return reactiveAnimeRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Anime not Found")));
+    }
+
+    public Mono<Anime> save(AnimePostRequestBody animePostRequestBody) {
+        return reactiveAnimeRepository.insert(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+    }
+
+    /* bloqueio otimista igual ao AnimeService.replace: com a versão do cliente o conflito é devolvido (409),
+       sem ela a alteração é repetida até AnimeService.MAXIMUM_REPLACE_ATTEMPTS vezes */
+    public Mono<Void> replace(AnimePutRequestBody animePutRequestBody) {
+        return Mono.defer(() -> replaceOnce(animePutRequestBody))
+                .retryWhen(Retry.max(AnimeService.MAXIMUM_REPLACE_ATTEMPTS - 1L)
+                        .filter(e -> e instanceof OptimisticLockingFailureException && animePutRequestBody.getVersion() == null)
+                        .onRetryExhaustedThrow((retrySpec, retrySignal) -> retrySignal.failure()))
+                .onErrorMap(OptimisticLockingFailureException.class,
+                        e -> new ConflictException("The anime was changed by another request"))
+                .then();
+    }
+
+    private Mono<Anime> replaceOnce(AnimePutRequestBody animePutRequestBody) {
+        return findByIdOrThrowBadRequestException(animePutRequestBody.getId())
+                .flatMap(savedAnime -> {
+                    if (animePutRequestBody.getVersion() != null && animePutRequestBody.getVersion() != savedAnime.getVersion()) {
+                        return Mono.error(new ConflictException(String.format(
+                                "The anime version is %d but the request has the version %d",
+                                savedAnime.getVersion(), animePutRequestBody.getVersion())));
+                    }
+                    savedAnime.setName(AnimeMapper.INSTANCE.toAnime(animePutRequestBody).getName());
+                    // o update executa "where version = ?" com a versão lida acima
+                    return reactiveAnimeRepository.update(savedAnime);
+                });
+    }
+
+}
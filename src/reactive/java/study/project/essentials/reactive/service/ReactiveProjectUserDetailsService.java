@@ -0,0 +1,22 @@
+package study.project.essentials.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import study.project.essentials.reactive.repository.ReactiveProjectUserRepository;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveProjectUserDetailsService implements ReactiveUserDetailsService {
+
+    private final ReactiveProjectUserRepository reactiveProjectUserRepository;
+
+    // usuário não encontrado >> Mono vazio, o spring security responde 401
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return reactiveProjectUserRepository.findByUsername(username).cast(UserDetails.class);
+    }
+
+}
@@ -0,0 +1,164 @@
+package study.project.essentials.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.util.AnimePostRequestBodyCreator;
+import study.project.essentials.util.AnimePutRequestBodyCreator;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// servidor http local (reactor netty) no lugar da api de animes
+class AnimeClientTest {
+
+    private DisposableServer server;
+    private AnimeClient animeClient;
+
+    // porta de origem de cada requisição, a mesma porta indica a mesma conexão
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final List<String> authorizationHeaders = new CopyOnWriteArrayList<>();
+    private final List<String> batchBodies = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/animes/{id}", (request, response) -> {
+                            clientPorts.add(((InetSocketAddress) request.remoteAddress()).getPort());
+                            authorizationHeaders.add(request.requestHeaders().get(HttpHeaders.AUTHORIZATION));
+                            if ("404".equals(request.param("id"))) {
+                                return response.status(400).send();
+                            }
+                            // resposta depois do response timeout do cliente
+                            if ("999".equals(request.param("id"))) {
+                                return Mono.delay(Duration.ofSeconds(2)).then(response.status(204).send());
+                            }
+                            return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                    .sendString(Mono.just("{\"id\":" + request.param("id") + ",\"name\":\"Kingdom\"}"));
+                        })
+                        .post("/animes/batch", (request, response) -> request.receive().aggregate().asString()
+                                .flatMap(body -> {
+                                    batchBodies.add(body);
+                                    return response.status(201)
+                                            .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                            .sendString(Mono.just(body.replace("\"name\"", "\"id\":1,\"name\"")))
+                                            .then();
+                                }))
+                        .put("/animes/admin", (request, response) -> request.receive().then(response.status(204).send())))
+                .bindNow();
+
+        animeClient = new AnimeClient(WebClient.builder(), createProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        animeClient.destroy();
+        server.disposeNow();
+    }
+
+    private AnimeClientProperties createProperties() {
+        AnimeClientProperties properties = new AnimeClientProperties();
+        properties.setBaseUrl("http://localhost:" + server.port());
+        properties.setUsername("Noah");
+        properties.setPassword("project");
+        properties.getTimeouts().setResponse(Duration.ofMillis(500));
+        properties.getBatch().setSize(2);
+        return properties;
+    }
+
+    @Test
+    @DisplayName("findById returns anime and sends the basic authentication when successful")
+    void findByIdReturnsAnimeWhenSuccessful() {
+        StepVerifier.create(animeClient.findById(1))
+                .expectNext(Anime.builder().id(1L).name("Kingdom").build())
+                .verifyComplete();
+
+        Assertions.assertThat(authorizationHeaders).containsExactly("Basic Tm9haDpwcm9qZWN0");
+    }
+
+    @Test
+    @DisplayName("findById reuses the pooled connections for sequential requests")
+    void findByIdReusesThePooledConnectionsForSequentialRequests() {
+        IntStream.rangeClosed(1, 50).forEach(id -> animeClient.findById(id).block());
+
+        // a conexão volta ao pool logo depois da resposta, a requisição seguinte pode abrir outra antes disso
+        Assertions.assertThat(clientPorts).hasSizeLessThanOrEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("findByIdAsync completes the future with the anime")
+    void findByIdAsyncCompletesTheFutureWithTheAnime() {
+        Assertions.assertThat(animeClient.findByIdAsync(1))
+                .succeedsWithin(Duration.ofSeconds(5))
+                .extracting(Anime::getId)
+                .isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("findByIds returns the animes in the order of the ids")
+    void findByIdsReturnsTheAnimesInTheOrderOfTheIds() {
+        List<Long> ids = IntStream.rangeClosed(1, 20).mapToObj(Long::valueOf).collect(Collectors.toList());
+
+        StepVerifier.create(animeClient.findByIds(ids).map(Anime::getId).collectList())
+                .expectNext(ids)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findById signals WebClientResponseException when the api returns an error")
+    void findByIdSignalsWebClientResponseExceptionWhenTheApiReturnsAnError() {
+        StepVerifier.create(animeClient.findById(404))
+                .expectError(WebClientResponseException.BadRequest.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("findById signals WebClientRequestException when the response timeout expires")
+    void findByIdSignalsWebClientRequestExceptionWhenTheResponseTimeoutExpires() {
+        StepVerifier.create(animeClient.findById(999))
+                .expectError(WebClientRequestException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("saveAll splits the animes in requests of batch size")
+    void saveAllSplitsTheAnimesInRequestsOfBatchSize() {
+        List<AnimePostRequestBody> animes = Collections.nCopies(5, AnimePostRequestBodyCreator.createAnimePostRequestBody());
+
+        Assertions.assertThat(animeClient.saveAllAsync(animes))
+                .succeedsWithin(Duration.ofSeconds(5))
+                .asList()
+                .hasSize(5);
+        Assertions.assertThat(batchBodies).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("replace completes when successful")
+    void replaceCompletesWhenSuccessful() {
+        StepVerifier.create(animeClient.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()))
+                .verifyComplete();
+    }
+
+}
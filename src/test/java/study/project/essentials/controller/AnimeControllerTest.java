@@ -9,21 +9,39 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.context.request.ServletWebRequest;
 import study.project.essentials.domain.Anime;
+import study.project.essentials.domain.AnimeVersion;
 import study.project.essentials.requests.AnimePostRequestBody;
 import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.responses.AnimeBatchUpdateResponse;
+import study.project.essentials.responses.AnimeResponse;
+import study.project.essentials.responses.AnimeSuggestion;
+import study.project.essentials.service.AnimeBatchService;
+import study.project.essentials.service.AnimeCountCache;
+import study.project.essentials.service.AnimeNameIndex;
 import study.project.essentials.service.AnimeService;
 import study.project.essentials.util.AnimeCreator;
 import study.project.essentials.util.AnimePostRequestBodyCreator;
 import study.project.essentials.util.AnimePutRequestBodyCreator;
+import study.project.essentials.util.AnimeResponseCreator;
+import study.project.essentials.util.ETagUtil;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.OptionalLong;
 
 // informa que será utilizado o JUnit com Spring
 @ExtendWith(SpringExtension.class)
@@ -37,6 +55,15 @@ class AnimeControllerTest {
     @Mock
     private AnimeService animeServiceMock;
 
+    @Mock
+    private AnimeCountCache animeCountCacheMock;
+
+    @Mock
+    private AnimeBatchService animeBatchServiceMock;
+
+    @Mock
+    private AnimeNameIndex animeNameIndexMock;
+
     @BeforeEach
     void setUp() {
         // quando retorna uma lista o anime já esta salvo no bando de dados
@@ -46,17 +73,32 @@ class AnimeControllerTest {
         BDDMockito.when(animeServiceMock.listAll(ArgumentMatchers.any()))
                 .thenReturn(animePage);
 
+        // as versões da página usadas no ETag
+        Anime validAnime = AnimeCreator.createValidAnime();
+        BDDMockito.when(animeServiceMock.listVersions(ArgumentMatchers.any()))
+                .thenReturn(new PageImpl<>(List.of(new AnimeVersion(validAnime.getId(), validAnime.getVersion(), null))));
+        BDDMockito.when(animeServiceMock.listAllByVersions(ArgumentMatchers.any()))
+                .thenReturn(new PageImpl<>(List.of(AnimeResponseCreator.createValidAnimeResponse())));
+
+        // quando executar dentro do controller uma chamada ao listAllSlice retorna um slice com a próxima página
+        BDDMockito.when(animeServiceMock.listAllSlice(ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1), true));
+
+        // o total aproximado já foi calculado
+        BDDMockito.when(animeCountCacheMock.getApproximateCount())
+                .thenReturn(OptionalLong.of(10));
+
         // quando executar dentro do controller uma chamada ao listAll sem paginação retornando uma lista de anime com id valido
         BDDMockito.when(animeServiceMock.listAllNonPageable())
-                .thenReturn(List.of(AnimeCreator.createValidAnime()));
+                .thenReturn(List.of(AnimeResponseCreator.createValidAnimeResponse()));
 
         // quando executar dentro do controller uma chamada ao findById procurando um anime com id valido
         BDDMockito.when(animeServiceMock.findByIdOrThrowBadRequestException(ArgumentMatchers.anyLong()))
                   .thenReturn(AnimeCreator.createValidAnime());
 
         // quando executar dentro do controller uma chamada ao findByName procurando o nome do anime e retornando uma lista de anime com id valido
-        BDDMockito.when(animeServiceMock.findByName(ArgumentMatchers.anyString()))
-                .thenReturn(List.of(AnimeCreator.createValidAnime()));
+        BDDMockito.when(animeServiceMock.findByName(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(List.of(AnimeResponseCreator.createValidAnimeResponse()), PageRequest.of(0, 1), true));
 
         // quando executar dentro do controller uma chamada ao save passando qualquer tipo de objeto retorna uma anime valido
         BDDMockito.when(animeServiceMock.save(ArgumentMatchers.any(AnimePostRequestBody.class)))
@@ -66,13 +108,18 @@ class AnimeControllerTest {
         BDDMockito.doNothing().when(animeServiceMock).replace(ArgumentMatchers.any(AnimePutRequestBody.class));
     }
 
+    // requisição GET sem headers condicionais
+    private static ServletWebRequest createWebRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/animes"), new MockHttpServletResponse());
+    }
+
     @Test
     @DisplayName("list returns list of anime inside page object when successful")
     void listReturnsListOfAnimeInsidePageObjectWhenSuccessful() {
         // recebendo o nome de anime
         String expectedName = AnimeCreator.createValidAnime().getName();
         // recebendo uma lista paginada de animes
-        Page<Anime> animePage = animeController.list(null).getBody();
+        Page<AnimeResponse> animePage = animeController.list(null, createWebRequest()).getBody();
 
         // verifica se o nome do anime não é nulo
         Assertions.assertThat(animePage).isNotNull();
@@ -86,6 +133,20 @@ class AnimeControllerTest {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listSlice returns list of anime inside slice object with the approximate total header when successful")
+    void listSliceReturnsListOfAnimeInsideSliceObjectWithApproximateTotalHeader() {
+        String expectedName = AnimeCreator.createValidAnime().getName();
+
+        ResponseEntity<Slice<Anime>> entity = animeController.listSlice(PageRequest.of(0, 1));
+
+        Assertions.assertThat(entity.getBody()).isNotNull();
+        Assertions.assertThat(entity.getBody().getContent()).hasSize(1);
+        Assertions.assertThat(entity.getBody().getContent().get(0).getName()).isEqualTo(expectedName);
+        Assertions.assertThat(entity.getBody().hasNext()).isTrue();
+        Assertions.assertThat(entity.getHeaders().getFirst(AnimeController.APPROXIMATE_TOTAL_COUNT_HEADER)).isEqualTo("10");
+    }
+
     @Test
     @DisplayName("listAll returns list of anime when successful")
     void listAllReturnsListOfAnimeWhenSuccessful() {
@@ -93,7 +154,7 @@ class AnimeControllerTest {
         String expectedName = AnimeCreator.createValidAnime().getName();
 
         // recebendo uma lista de animes
-        List<Anime> animes = animeController.listAll().getBody();
+        List<AnimeResponse> animes = animeController.listAll().getBody();
 
         // verificando se os animes não são nulos, vazios ou se possui um
         Assertions.assertThat(animes)
@@ -112,7 +173,7 @@ class AnimeControllerTest {
         Long expectedId = AnimeCreator.createValidAnime().getId();
 
         // procurando um anime com id
-        Anime anime = animeController.findById(1).getBody();
+        Anime anime = animeController.findById(1, createWebRequest()).getBody();
 
         // verifica se o anime não é nulo
         Assertions.assertThat(anime).isNotNull();
@@ -121,6 +182,38 @@ class AnimeControllerTest {
         Assertions.assertThat(anime.getId()).isNotNull().isEqualTo(expectedId);
     }
 
+    @Test
+    @DisplayName("findById returns null with status not modified when the ETag matches")
+    void findByIdReturnsNullWithStatusNotModifiedWhenTheETagMatches() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETagUtil.of(AnimeCreator.createValidAnime()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<Anime> entity = animeController.findById(1, new ServletWebRequest(request, response));
+
+        // o spring responde o 304 sem serializar o anime
+        Assertions.assertThat(entity).isNull();
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    @DisplayName("list does not load the animes when the ETag of the page matches")
+    void listDoesNotLoadTheAnimesWhenTheETagOfThePageMatches() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        animeController.list(null, new ServletWebRequest(request, response));
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest conditionalRequest = new MockHttpServletRequest("GET", "/animes");
+        conditionalRequest.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse conditionalResponse = new MockHttpServletResponse();
+
+        Assertions.assertThat(animeController.list(null, new ServletWebRequest(conditionalRequest, conditionalResponse))).isNull();
+        Assertions.assertThat(conditionalResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        // somente a primeira requisição carregou os animes
+        Mockito.verify(animeServiceMock, Mockito.times(1)).listAllByVersions(ArgumentMatchers.any());
+    }
+
     @Test
     @DisplayName("findByName returns a list of anime when succesful")
     void findByNameReturnsListOfAnimeWhenSuccesful() {
@@ -128,16 +221,19 @@ class AnimeControllerTest {
         String expectedName = AnimeCreator.createValidAnime().getName();
 
         // procurando um nome de anime
-        List<Anime> animes = animeController.findByName("anime").getBody();
+        Slice<AnimeResponse> animeSlice = animeController.findByName("anime", PageRequest.of(0, 1)).getBody();
 
         // verificando se o anime não é nulo, vazio e possui um
-        Assertions.assertThat(animes)
-                .isNotNull()
+        Assertions.assertThat(animeSlice).isNotNull();
+        Assertions.assertThat(animeSlice.getContent())
                 .isNotEmpty()
                 .hasSize(1);
 
-        // verifica se o nome é existente
-        Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
+        // verifica se o nome é existente e os dados da página
+        Assertions.assertThat(animeSlice.getContent().get(0).getName()).isEqualTo(expectedName);
+        Assertions.assertThat(animeSlice.getNumber()).isZero();
+        Assertions.assertThat(animeSlice.getSize()).isEqualTo(1);
+        Assertions.assertThat(animeSlice.hasNext()).isTrue();
     }
 
     @Test
@@ -145,16 +241,16 @@ class AnimeControllerTest {
     void findByNameReturnsEmptyListOfAnimeWhenAnimeIsNotFound() {
          /* quando executar o metodo findByName com qualquer tipo de
           * string retorna um lista vazia. */
-        BDDMockito.when(animeServiceMock.findByName(ArgumentMatchers.anyString()))
-                .thenReturn(Collections.emptyList());
+        BDDMockito.when(animeServiceMock.findByName(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 20), false));
 
         // procurando um nome de anime
-        List<Anime> animes = animeController.findByName("anime").getBody();
+        Slice<AnimeResponse> animeSlice = animeController.findByName("anime", PageRequest.of(0, 20)).getBody();
 
         // verificando se o nome de anime é nulo e vazio
-        Assertions.assertThat(animes)
-                .isNotNull()
-                .isEmpty();
+        Assertions.assertThat(animeSlice).isNotNull();
+        Assertions.assertThat(animeSlice.getContent()).isEmpty();
+        Assertions.assertThat(animeSlice.hasNext()).isFalse();
     }
 
     @Test
@@ -169,6 +265,50 @@ class AnimeControllerTest {
                 .isEqualTo(AnimeCreator.createValidAnime());
     }
 
+    @Test
+    @DisplayName("suggest returns the suggestions of the name index when successful")
+    void suggestReturnsTheSuggestionsOfTheNameIndexWhenSuccessful() {
+        Anime anime = AnimeCreator.createValidAnime();
+        BDDMockito.when(animeNameIndexMock.suggest("haj", 10))
+                .thenReturn(List.of(new AnimeSuggestion(anime.getId(), anime.getName())));
+
+        List<AnimeSuggestion> suggestions = animeController.suggest("haj", 10).getBody();
+
+        Assertions.assertThat(suggestions)
+                .extracting(AnimeSuggestion::getName)
+                .containsExactly(anime.getName());
+    }
+
+    @Test
+    @DisplayName("saveAll returns the saved animes with status created when successful")
+    void saveAllReturnsSavedAnimesWithStatusCreatedWhenSuccessful() {
+        BDDMockito.when(animeBatchServiceMock.saveAll(ArgumentMatchers.anyList()))
+                .thenReturn(List.of(AnimeCreator.createValidAnime()));
+
+        ResponseEntity<List<Anime>> entity = animeController.saveAll(
+                List.of(AnimePostRequestBodyCreator.createAnimePostRequestBody()));
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(entity.getBody()).containsExactly(AnimeCreator.createValidAnime());
+    }
+
+    @Test
+    @DisplayName("replaceAll returns the batch update report when successful")
+    void replaceAllReturnsTheBatchUpdateReportWhenSuccessful() {
+        AnimeBatchUpdateResponse report = AnimeBatchUpdateResponse.builder()
+                .updated(1)
+                .missingIds(Collections.emptyList())
+                .build();
+        BDDMockito.when(animeBatchServiceMock.replaceAll(ArgumentMatchers.anyList()))
+                .thenReturn(report);
+
+        ResponseEntity<AnimeBatchUpdateResponse> entity = animeController.replaceAll(
+                List.of(AnimePutRequestBodyCreator.createAnimePutRequestBody()));
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(entity.getBody()).isEqualTo(report);
+    }
+
     @Test
     @DisplayName("replace updates anime when successful")
     void replaceUpdatesAnimeWhenSuccesful() {
@@ -0,0 +1,157 @@
+package study.project.essentials.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.project.essentials.config.DataSourceRoutingProperties.Selection;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primaryMock;
+    private HikariDataSource firstReplicaMock;
+    private HikariDataSource secondReplicaMock;
+    private Connection primaryConnection;
+    private Connection firstReplicaConnection;
+    private Connection secondReplicaConnection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primaryMock = Mockito.mock(DataSource.class);
+        firstReplicaMock = Mockito.mock(HikariDataSource.class);
+        secondReplicaMock = Mockito.mock(HikariDataSource.class);
+        primaryConnection = Mockito.mock(Connection.class);
+        firstReplicaConnection = Mockito.mock(Connection.class);
+        secondReplicaConnection = Mockito.mock(Connection.class);
+
+        BDDMockito.when(primaryMock.getConnection()).thenReturn(primaryConnection);
+        BDDMockito.when(firstReplicaMock.getConnection()).thenReturn(firstReplicaConnection);
+        BDDMockito.when(secondReplicaMock.getConnection()).thenReturn(secondReplicaConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // transação de escrita que obtém uma conexão e termina com commit ou rollback
+    private void runWriteTransaction(ReplicaRoutingDataSource routingDataSource, boolean commit) throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        routingDataSource.getConnection();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        if (commit) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+    }
+
+    private ReplicaRoutingDataSource routingDataSource(Selection selection, boolean fallbackToPrimary) {
+        return new ReplicaRoutingDataSource(primaryMock, List.of(firstReplicaMock, secondReplicaMock),
+                selection, fallbackToPrimary, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("getConnection returns a primary connection outside read-only transactions")
+    void getConnectionReturnsAPrimaryConnectionOutsideReadOnlyTransactions() throws SQLException {
+        Assertions.assertThat(routingDataSource(Selection.ROUND_ROBIN, true).getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection alternates the replicas in read-only transactions with round robin")
+    void getConnectionAlternatesTheReplicasWithRoundRobin() throws SQLException {
+        ReplicaRoutingDataSource routingDataSource = routingDataSource(Selection.ROUND_ROBIN, true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(List.of(routingDataSource.getConnection(), routingDataSource.getConnection(),
+                        routingDataSource.getConnection()))
+                .containsExactly(firstReplicaConnection, secondReplicaConnection, firstReplicaConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection returns the replica with fewer active and pending connections with least loaded")
+    void getConnectionReturnsTheReplicaWithFewerConnectionsWithLeastLoaded() throws SQLException {
+        HikariPoolMXBean busyPool = Mockito.mock(HikariPoolMXBean.class);
+        BDDMockito.when(busyPool.getActiveConnections()).thenReturn(5);
+        BDDMockito.when(busyPool.getThreadsAwaitingConnection()).thenReturn(2);
+        HikariPoolMXBean idlePool = Mockito.mock(HikariPoolMXBean.class);
+        BDDMockito.when(idlePool.getActiveConnections()).thenReturn(1);
+        BDDMockito.when(firstReplicaMock.getHikariPoolMXBean()).thenReturn(busyPool);
+        BDDMockito.when(secondReplicaMock.getHikariPoolMXBean()).thenReturn(idlePool);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(routingDataSource(Selection.LEAST_LOADED, true).getConnection())
+                .isSameAs(secondReplicaConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection returns a primary connection when the replica is unavailable and fallback is enabled")
+    void getConnectionFallsBackToThePrimaryWhenTheReplicaIsUnavailable() throws SQLException {
+        BDDMockito.when(firstReplicaMock.getConnection()).thenThrow(new SQLException("Connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(routingDataSource(Selection.ROUND_ROBIN, true).getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection throws SQLException when the replica is unavailable and fallback is disabled")
+    void getConnectionThrowsSQLExceptionWhenTheReplicaIsUnavailableWithoutFallback() throws SQLException {
+        BDDMockito.when(firstReplicaMock.getConnection()).thenThrow(new SQLException("Connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(() -> routingDataSource(Selection.ROUND_ROBIN, false).getConnection());
+    }
+
+    @Test
+    @DisplayName("getConnection returns a primary connection in read-only transactions right after a committed write")
+    void getConnectionReturnsAPrimaryConnectionRightAfterACommittedWrite() throws SQLException {
+        ReplicaRoutingDataSource routingDataSource = routingDataSource(Selection.ROUND_ROBIN, true);
+        runWriteTransaction(routingDataSource, true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection keeps the replicas after a rolled back write or a connection outside transactions")
+    void getConnectionKeepsTheReplicasAfterARolledBackWrite() throws SQLException {
+        ReplicaRoutingDataSource routingDataSource = routingDataSource(Selection.ROUND_ROBIN, true);
+        runWriteTransaction(routingDataSource, false);
+        routingDataSource.getConnection();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(firstReplicaConnection);
+    }
+
+    @Test
+    @DisplayName("unwrap reaches the primary pool")
+    void unwrapReachesThePrimaryPool() throws SQLException {
+        HikariDataSource primaryPool = Mockito.mock(HikariDataSource.class);
+        BDDMockito.when(primaryMock.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        BDDMockito.when(primaryMock.unwrap(HikariDataSource.class)).thenReturn(primaryPool);
+        ReplicaRoutingDataSource routingDataSource = routingDataSource(Selection.ROUND_ROBIN, true);
+
+        Assertions.assertThat(routingDataSource.isWrapperFor(HikariDataSource.class)).isTrue();
+        Assertions.assertThat(routingDataSource.unwrap(HikariDataSource.class)).isSameAs(primaryPool);
+    }
+
+}
@@ -0,0 +1,62 @@
+package study.project.essentials.filter;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import study.project.essentials.service.AnimeResponseCache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+class AnimeResponseCacheFilterTest {
+    private static final String BODY = "[{\"id\":1,\"name\":\"Hajime no Ippo\"}]";
+
+    private AnimeResponseCacheFilter animeResponseCacheFilter;
+
+    @BeforeEach
+    void setUp() {
+        AnimeResponseCache animeResponseCache = new AnimeResponseCache(1024 * 1024, Duration.ofMinutes(1), Duration.ZERO);
+        animeResponseCache.put("/animes/all", animeResponseCache.currentGeneration(), "application/json", null,
+                BODY.getBytes(StandardCharsets.UTF_8));
+        animeResponseCacheFilter = new AnimeResponseCacheFilter(animeResponseCache, 1);
+    }
+
+    @Test
+    @DisplayName("doFilter answers the cached response with gzip when the client accepts it")
+    void doFilterAnswersWithGzipWhenTheClientAcceptsIt() throws Exception {
+        Assertions.assertThat(contentEncoding("gzip, deflate")).isEqualTo("gzip");
+        Assertions.assertThat(contentEncoding("deflate;q=1, gzip;q=0.5")).isEqualTo("gzip");
+        Assertions.assertThat(contentEncoding("*")).isEqualTo("gzip");
+    }
+
+    @Test
+    @DisplayName("doFilter answers the uncompressed response when gzip is refused with q=0")
+    void doFilterAnswersUncompressedWhenGzipIsRefused() throws Exception {
+        MockHttpServletResponse response = get("gzip;q=0");
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        Assertions.assertThat(response.getContentAsString()).isEqualTo(BODY);
+        // o gzip recusado não volta a ser aceito pelo *
+        Assertions.assertThat(contentEncoding("gzip;q=0, *")).isNull();
+        Assertions.assertThat(contentEncoding("*;q=0")).isNull();
+        Assertions.assertThat(contentEncoding("identity")).isNull();
+    }
+
+    private String contentEncoding(String acceptEncoding) throws Exception {
+        return get(acceptEncoding).getHeader(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    private MockHttpServletResponse get(String acceptEncoding) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/all");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        animeResponseCacheFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+}
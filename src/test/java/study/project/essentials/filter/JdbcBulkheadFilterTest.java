@@ -0,0 +1,90 @@
+package study.project.essentials.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+class JdbcBulkheadFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JdbcBulkheadFilter jdbcBulkheadFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // somente uma requisição por vez, esperando 10ms por uma vaga
+        jdbcBulkheadFilter = new JdbcBulkheadFilter(1, Duration.ofMillis(10),
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("doFilter returns 503 with Retry-After when every permit is in use")
+    void doFilterReturns503WhenEveryPermitIsInUse() throws Exception {
+        MockHttpServletResponse innerResponse = new MockHttpServletResponse();
+
+        // enquanto a primeira requisição executa, uma segunda requisição chega ao filtro
+        Servlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+                try {
+                    jdbcBulkheadFilter.doFilter(new MockHttpServletRequest("GET", "/animes/2"), innerResponse,
+                            new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+        jdbcBulkheadFilter.doFilter(new MockHttpServletRequest("GET", "/animes/1"), outerResponse, new MockFilterChain(servlet));
+
+        Assertions.assertThat(outerResponse.getStatus()).isEqualTo(HttpStatus.OK.value());
+        Assertions.assertThat(innerResponse.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        Assertions.assertThat(innerResponse.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        Assertions.assertThat(meterRegistry.get("essentials.web.bulkhead.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("doFilter releases the permit after the request")
+    void doFilterReleasesThePermitAfterTheRequest() throws Exception {
+        for (int request = 0; request < 3; request++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            jdbcBulkheadFilter.doFilter(new MockHttpServletRequest("GET", "/animes"), response, new MockFilterChain());
+
+            Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+        Assertions.assertThat(meterRegistry.get("essentials.web.bulkhead.available").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("doFilter does not limit requests outside /animes")
+    void doFilterDoesNotLimitRequestsOutsideAnimes() throws Exception {
+        Servlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+                // o actuator continua respondendo com o limite ocupado
+                Assertions.assertThat(meterRegistry.get("essentials.web.bulkhead.available").gauge().value()).isEqualTo(1);
+            }
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jdbcBulkheadFilter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain(servlet));
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+}
@@ -0,0 +1,131 @@
+package study.project.essentials.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+class DataSourcePoolHealthIndicatorTest {
+    private static final String POOL_NAME = "health-pool";
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    private static final Duration SAMPLE_INTERVAL = Duration.ofSeconds(10);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+    private HikariDataSource dataSource;
+    private DataSourcePoolHealthIndicator dataSourcePoolHealthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:health-pool");
+        dataSource.setPoolName(POOL_NAME);
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        dataSourcePoolHealthIndicator = new DataSourcePoolHealthIndicator(dataSource, meterRegistry, Duration.ofMillis(100),
+                WINDOW, nanoTime::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("health returns UP with the pool not started before the first connection")
+    void healthReturnsUpWithThePoolNotStarted() {
+        Health health = dataSourcePoolHealthIndicator.health();
+
+        Assertions.assertThat(health.getStatus()).isEqualTo(Status.UP);
+        Assertions.assertThat(health.getDetails()).containsEntry("started", false);
+    }
+
+    @Test
+    @DisplayName("health returns UP with the pool state when connections are acquired below the threshold")
+    void healthReturnsUpWhenConnectionsAreAcquiredBelowTheThreshold() throws SQLException {
+        try (Connection ignored = dataSource.getConnection()) {
+            Health health = dataSourcePoolHealthIndicator.health();
+
+            Assertions.assertThat(health.getStatus()).isEqualTo(Status.UP);
+            Assertions.assertThat(health.getDetails())
+                    .containsEntry("pool", POOL_NAME)
+                    .containsEntry("active", 1)
+                    .containsEntry("maximum", 2)
+                    .containsEntry("saturated", false)
+                    .containsEntry("acquisitions", 1L);
+        }
+    }
+
+    @Test
+    @DisplayName("health returns DEGRADED while the slow acquisitions are inside the window regardless of the health checks")
+    void healthReturnsDegradedWhileTheSlowAcquisitionsAreInsideTheWindow() throws SQLException {
+        dataSource.getConnection().close();
+        dataSourcePoolHealthIndicator.sample();
+        acquireTimer().record(Duration.ofMillis(500));
+
+        // verificações seguidas não descartam a espera lenta
+        Assertions.assertThat(dataSourcePoolHealthIndicator.health().getStatus()).isEqualTo(DataSourcePoolHealthIndicator.DEGRADED);
+        Assertions.assertThat(dataSourcePoolHealthIndicator.health().getStatus()).isEqualTo(DataSourcePoolHealthIndicator.DEGRADED);
+
+        // amostras em intervalos fixos até a espera lenta sair da janela
+        for (int i = 0; i < 6; i++) {
+            advance(SAMPLE_INTERVAL);
+            dataSourcePoolHealthIndicator.sample();
+        }
+        Assertions.assertThat(dataSourcePoolHealthIndicator.health().getStatus()).isEqualTo(DataSourcePoolHealthIndicator.DEGRADED);
+        advance(SAMPLE_INTERVAL);
+        dataSourcePoolHealthIndicator.sample();
+        acquireTimer().record(Duration.ofMillis(1));
+
+        Health health = dataSourcePoolHealthIndicator.health();
+        Assertions.assertThat(health.getStatus()).isEqualTo(Status.UP);
+        Assertions.assertThat(health.getDetails())
+                .containsEntry("acquisitions", 1L)
+                .containsEntry("window", WINDOW.toString());
+    }
+
+    @Test
+    @DisplayName("health returns DEGRADED when a connection request timed out inside the window")
+    void healthReturnsDegradedWhenAConnectionRequestTimedOut() throws SQLException {
+        dataSource.getConnection().close();
+        meterRegistry.counter("hikaricp.connections.timeout", "pool", POOL_NAME).increment();
+
+        Health health = dataSourcePoolHealthIndicator.health();
+
+        Assertions.assertThat(health.getStatus()).isEqualTo(DataSourcePoolHealthIndicator.DEGRADED);
+        Assertions.assertThat(health.getDetails()).containsEntry("timeouts", 1L);
+    }
+
+    @Test
+    @DisplayName("health returns UNKNOWN when the DataSource is not a Hikari pool")
+    void healthReturnsUnknownWhenTheDataSourceIsNotAHikariPool() {
+        DataSourcePoolHealthIndicator indicator = new DataSourcePoolHealthIndicator(
+                new DriverManagerDataSource("jdbc:h2:mem:health-pool"), meterRegistry, Duration.ofMillis(100), WINDOW);
+
+        Assertions.assertThat(indicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+
+    private void advance(Duration duration) {
+        nanoTime.addAndGet(duration.toNanos());
+    }
+
+    private Timer acquireTimer() {
+        return meterRegistry.timer("hikaricp.connections.acquire", "pool", POOL_NAME);
+    }
+
+}
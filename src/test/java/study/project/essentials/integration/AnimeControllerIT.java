@@ -15,20 +15,29 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import study.project.essentials.domain.Anime;
 import study.project.essentials.domain.ProjectUser;
 import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.repository.AnimeSearchTokenRepository;
 import study.project.essentials.repository.ProjectUserRepository;
 import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.responses.AnimeBatchUpdateResponse;
+import study.project.essentials.responses.AnimeSuggestion;
 import study.project.essentials.util.AnimeCreator;
 import study.project.essentials.util.AnimePostRequestBodyCreator;
+import study.project.essentials.wrapper.KeysetResponse;
+import study.project.essentials.wrapper.SliceableResponse;
 import study.project.essentials.wrapper.PageableResponse;
 
 import java.util.List;
+import java.util.Map;
 
 // iniciando o spring informando a porta
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -53,6 +62,9 @@ class AnimeControllerIT {
     @Autowired
     private AnimeRepository animeRepository;
 
+    @Autowired
+    private AnimeSearchTokenRepository animeSearchTokenRepository;
+
     @Autowired
     private ProjectUserRepository projectUserRepository;
 
@@ -127,6 +139,58 @@ class AnimeControllerIT {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listSlice returns list of anime inside slice object when successful")
+    void listSliceReturnsListOfAnimeInsideSliceObjectWhenSuccessful() {
+        // criando dois animes e salvando
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        // realizando uma requisição get para o slice de animes
+        SliceableResponse<Anime> animeSlice = testRestTemplateRoleUser.exchange("/animes/slice?size=1", HttpMethod.GET, null,
+                new ParameterizedTypeReference<SliceableResponse<Anime>>() {
+                }).getBody();
+
+        Assertions.assertThat(animeSlice).isNotNull();
+        Assertions.assertThat(animeSlice.getContent()).hasSize(1);
+        Assertions.assertThat(animeSlice.getContent().get(0).getName()).isEqualTo(savedAnime.getName());
+        Assertions.assertThat(animeSlice.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("listAfter returns all animes following the next cursor")
+    void listAfterReturnsAllAnimesFollowingTheNextCursor() {
+        // criando três animes e salvando
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        Anime lastAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        // primeira página com dois animes
+        KeysetResponse<Anime> firstPage = testRestTemplateRoleUser.exchange("/animes?after=&size=2", HttpMethod.GET, null,
+                new ParameterizedTypeReference<KeysetResponse<Anime>>() {
+                }).getBody();
+
+        Assertions.assertThat(firstPage).isNotNull();
+        Assertions.assertThat(firstPage.getContent()).hasSize(2);
+        Assertions.assertThat(firstPage.isHasNext()).isTrue();
+
+        // segunda página a partir do cursor retornado
+        KeysetResponse<Anime> secondPage = testRestTemplateRoleUser.exchange("/animes?after={after}&size=2", HttpMethod.GET, null,
+                new ParameterizedTypeReference<KeysetResponse<Anime>>() {
+                }, firstPage.getNextCursor()).getBody();
+
+        Assertions.assertThat(secondPage).isNotNull();
+        Assertions.assertThat(secondPage.getContent()).hasSize(1);
+        Assertions.assertThat(secondPage.getContent().get(0).getId()).isEqualTo(lastAnime.getId());
+        Assertions.assertThat(secondPage.getNextCursor()).isNull();
+    }
+
     @Test
     @DisplayName("listAll returns list of anime when successful")
     void listAllReturnsListOfAnimeWhenSuccessful() {
@@ -154,6 +218,157 @@ class AnimeControllerIT {
         Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAll in json stream mode returns all animes in id order")
+    void listAllInJsonStreamModeReturnsAllAnimesInIdOrder() {
+        // criando dois animes e salvando
+        Anime firstAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        Anime secondAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        // o corpo é escrito em partes, mas continua sendo um array json
+        List<Anime> animes = testRestTemplateRoleUser.exchange("/animes/all?stream=json", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Anime>>() {
+                }).getBody();
+
+        Assertions.assertThat(animes)
+                .isNotNull()
+                .extracting(Anime::getId)
+                .containsExactly(firstAnime.getId(), secondAnime.getId());
+    }
+
+    @Test
+    @DisplayName("listAll in ndjson stream mode returns one anime per line")
+    void listAllInNdjsonStreamModeReturnsOneAnimePerLine() {
+        // criando dois animes e salvando
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        ResponseEntity<String> response = testRestTemplateRoleUser.exchange("/animes/all?stream=ndjson", HttpMethod.GET,
+                null, String.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .startsWith("{")
+                .endsWith("}\n");
+        Assertions.assertThat(response.getBody().split("\n")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("search returns animes inside slice object ordered by relevance in FULL_TEXT mode")
+    void searchReturnsAnimesInsideSliceObjectOrderedByRelevanceInFullTextMode() {
+        // criando animes e salvando com as palavras na anime_search_token
+        Anime oneWord = animeRepository.save(Anime.builder().name("Hajime no Ippo").build());
+        Anime twoWords = animeRepository.save(Anime.builder().name("Hajime no Ippo: New Challenger").build());
+        Anime otherAnime = animeRepository.save(Anime.builder().name("Overlord").build());
+        animeSearchTokenRepository.insertAll(Map.of(oneWord.getId(), oneWord.getName(),
+                twoWords.getId(), twoWords.getName(), otherAnime.getId(), otherAnime.getName()));
+
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        SliceableResponse<Anime> animeSlice = testRestTemplateRoleUser.exchange(
+                "/animes/search?name={name}&mode=FULL_TEXT&size=1", HttpMethod.GET, null,
+                new ParameterizedTypeReference<SliceableResponse<Anime>>() {
+                }, "challeng ipp").getBody();
+
+        // prefixo das palavras, sem o total de elementos
+        Assertions.assertThat(animeSlice).isNotNull();
+        Assertions.assertThat(animeSlice.hasNext()).isTrue();
+        Assertions.assertThat(animeSlice.getContent())
+                .extracting(Anime::getId)
+                .containsExactly(twoWords.getId());
+    }
+
+    @Test
+    @DisplayName("suggest returns the anime created through the api after the commit")
+    void suggestReturnsTheAnimeCreatedThroughTheApi() {
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        // o anime salvo depois da inicialização entra no índice após o commit
+        ResponseEntity<Anime> savedAnime = testRestTemplateRoleUser.postForEntity("/animes",
+                AnimePostRequestBody.builder().name("Hajime no Ippo").build(), Anime.class);
+
+        List<AnimeSuggestion> suggestions = testRestTemplateRoleUser.exchange("/animes/suggest?name=ipp", HttpMethod.GET,
+                null, new ParameterizedTypeReference<List<AnimeSuggestion>>() {
+                }).getBody();
+
+        Assertions.assertThat(savedAnime.getBody()).isNotNull();
+        Assertions.assertThat(suggestions)
+                .isNotNull()
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(savedAnime.getBody().getId());
+    }
+
+    @Test
+    @DisplayName("findById returns 304 when the ETag did not change and 200 after the anime is replaced")
+    void findByIdReturns304WhenTheETagDidNotChange() {
+        // criando um anime e salvando
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        // salvando o usuário administrador
+        projectUserRepository.save(ADMIN);
+
+        ResponseEntity<Anime> first = testRestTemplateRoleAdmin.getForEntity("/animes/{id}", Anime.class, savedAnime.getId());
+        String eTag = first.getHeaders().getETag();
+        Assertions.assertThat(eTag).isNotNull();
+        Assertions.assertThat(first.getHeaders().getLastModified()).isPositive();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<Anime> notModified = testRestTemplateRoleAdmin.exchange("/animes/{id}", HttpMethod.GET,
+                new HttpEntity<>(headers), Anime.class, savedAnime.getId());
+
+        Assertions.assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(notModified.getBody()).isNull();
+
+        // a alteração incrementa a versão e muda o ETag
+        testRestTemplateRoleAdmin.exchange("/animes/admin", HttpMethod.PUT,
+                new HttpEntity<>(AnimePutRequestBody.builder().id(savedAnime.getId()).name("Overlord").build()), Void.class);
+        ResponseEntity<Anime> modified = testRestTemplateRoleAdmin.exchange("/animes/{id}", HttpMethod.GET,
+                new HttpEntity<>(headers), Anime.class, savedAnime.getId());
+
+        Assertions.assertThat(modified.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(modified.getBody()).isNotNull();
+        Assertions.assertThat(modified.getBody().getName()).isEqualTo("Overlord");
+        Assertions.assertThat(modified.getBody().getVersion()).isEqualTo(first.getBody().getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("list returns 304 when the ETag of the page did not change")
+    void listReturns304WhenTheETagOfThePageDidNotChange() {
+        // criando um anime e salvando
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        String eTag = testRestTemplateRoleUser.exchange("/animes", HttpMethod.GET, null, String.class)
+                .getHeaders().getETag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> notModified = testRestTemplateRoleUser.exchange("/animes", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        Assertions.assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        // um anime novo muda o total e o conteúdo da página (pela api, que também remove a página do cache de respostas)
+        testRestTemplateRoleUser.postForEntity("/animes", AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+        ResponseEntity<String> modified = testRestTemplateRoleUser.exchange("/animes", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        Assertions.assertThat(modified.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
     @Test
     @DisplayName("findById returns anime when sucessful")
     void findByIdReturnsAnimeWhenSuccessful() {
@@ -191,18 +406,18 @@ class AnimeControllerIT {
         String url = String.format("/animes/find?name=%s", expectedName);
 
         // realizando uma requisição get para a lista de animes
-        List<Anime> animes = testRestTemplateRoleUser.exchange(url, HttpMethod.GET, null,
-                new ParameterizedTypeReference<List<Anime>>() {
+        SliceableResponse<Anime> animeSlice = testRestTemplateRoleUser.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<SliceableResponse<Anime>>() {
                 }).getBody();
 
         // verificando se o anime não é nulo, vazio e possui um
-        Assertions.assertThat(animes)
-                .isNotNull()
+        Assertions.assertThat(animeSlice).isNotNull();
+        Assertions.assertThat(animeSlice.getContent())
                 .isNotEmpty()
                 .hasSize(1);
 
         // verifica se o nome é existente
-        Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
+        Assertions.assertThat(animeSlice.getContent().get(0).getName()).isEqualTo(expectedName);
     }
 
     @Test
@@ -212,14 +427,41 @@ class AnimeControllerIT {
         projectUserRepository.save(USER);
 
         // realizando uma requisição get para a lista de animes
-        List<Anime> animes = testRestTemplateRoleUser.exchange("/animes/find?name=dbz", HttpMethod.GET, null,
-                new ParameterizedTypeReference<List<Anime>>() {
+        SliceableResponse<Anime> animeSlice = testRestTemplateRoleUser.exchange("/animes/find?name=dbz", HttpMethod.GET, null,
+                new ParameterizedTypeReference<SliceableResponse<Anime>>() {
                 }).getBody();
 
-        // verificando se o anime não é nulo, vazio e possui um
-        Assertions.assertThat(animes)
-                .isNotNull()
-                .isEmpty();
+        // verificando se o anime não é nulo e vazio
+        Assertions.assertThat(animeSlice).isNotNull();
+        Assertions.assertThat(animeSlice.getContent()).isEmpty();
+        Assertions.assertThat(animeSlice.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("findByName returns one page of animes with the name and whether there is a next page")
+    void findByNameReturnsOnePageOfAnimesWithTheName() {
+        // criando animes com o mesmo nome e salvando
+        for (int i = 0; i < 3; i++) {
+            animeRepository.save(Anime.builder().name("Hajime no Ippo").build());
+        }
+
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        SliceableResponse<Anime> firstPage = testRestTemplateRoleUser.exchange("/animes/find?name={name}&size=2",
+                HttpMethod.GET, null, new ParameterizedTypeReference<SliceableResponse<Anime>>() {
+                }, "Hajime no Ippo").getBody();
+        SliceableResponse<Anime> lastPage = testRestTemplateRoleUser.exchange("/animes/find?name={name}&size=2&page=1",
+                HttpMethod.GET, null, new ParameterizedTypeReference<SliceableResponse<Anime>>() {
+                }, "Hajime no Ippo").getBody();
+
+        Assertions.assertThat(firstPage).isNotNull();
+        Assertions.assertThat(firstPage.getContent()).hasSize(2);
+        Assertions.assertThat(firstPage.hasNext()).isTrue();
+        Assertions.assertThat(lastPage).isNotNull();
+        Assertions.assertThat(lastPage.getContent()).hasSize(1);
+        Assertions.assertThat(lastPage.getNumber()).isEqualTo(1);
+        Assertions.assertThat(lastPage.hasNext()).isFalse();
     }
 
     @Test
@@ -243,6 +485,143 @@ class AnimeControllerIT {
         Assertions.assertThat(animeResponseEntity.getBody().getId()).isNotNull();
     }
 
+    @Test
+    @DisplayName("saveAll returns the saved animes with ids when successful")
+    void saveAllReturnsSavedAnimesWithIdsWhenSuccessful() {
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        List<AnimePostRequestBody> animePostRequestBodies = List.of(
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                AnimePostRequestBodyCreator.createAnimePostRequestBody());
+
+        ResponseEntity<List<Anime>> animesResponseEntity = testRestTemplateRoleUser.exchange("/animes/batch",
+                HttpMethod.POST, new HttpEntity<>(animePostRequestBodies), new ParameterizedTypeReference<List<Anime>>() {
+                });
+
+        Assertions.assertThat(animesResponseEntity.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(animesResponseEntity.getBody())
+                .hasSize(3)
+                .extracting(Anime::getId)
+                .doesNotContainNull()
+                .doesNotHaveDuplicates();
+        Assertions.assertThat(animeRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("saveAll returns 400 with the invalid items and saves nothing when an anime is invalid")
+    void saveAllReturns400WithTheInvalidItemsWhenAnAnimeIsInvalid() {
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        List<AnimePostRequestBody> animePostRequestBodies = List.of(
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                new AnimePostRequestBody(""));
+
+        ResponseEntity<String> response = testRestTemplateRoleUser.postForEntity("/animes/batch",
+                animePostRequestBodies, String.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        Assertions.assertThat(response.getBody()).contains("\"index\":1", "\"fields\":\"name\"");
+        Assertions.assertThat(animeRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("replace returns 409 when the version of the request is outdated")
+    void replaceReturns409WhenTheVersionIsOutdated() {
+        // criando um anime e salvando
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        // salvando o usuário administrador
+        projectUserRepository.save(ADMIN);
+
+        // a primeira alteração usa a versão lida e incrementa a versão do anime
+        AnimePutRequestBody firstEdit = AnimePutRequestBody.builder()
+                .id(savedAnime.getId()).name("Overlord").version(savedAnime.getVersion()).build();
+        ResponseEntity<Void> first = testRestTemplateRoleAdmin.exchange("/animes/admin", HttpMethod.PUT,
+                new HttpEntity<>(firstEdit), Void.class);
+
+        // a segunda alteração foi feita a partir da mesma leitura
+        AnimePutRequestBody secondEdit = AnimePutRequestBody.builder()
+                .id(savedAnime.getId()).name("Berserk").version(savedAnime.getVersion()).build();
+        ResponseEntity<String> second = testRestTemplateRoleAdmin.exchange("/animes/admin", HttpMethod.PUT,
+                new HttpEntity<>(secondEdit), String.class);
+
+        Assertions.assertThat(first.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        Assertions.assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        Assertions.assertThat(animeRepository.findById(savedAnime.getId()))
+                .get()
+                .extracting(Anime::getName)
+                .isEqualTo("Overlord");
+    }
+
+    @Test
+    @DisplayName("replaceAll returns the conflict ids when the version is outdated")
+    void replaceAllReturnsTheConflictIdsWhenTheVersionIsOutdated() {
+        // criando um anime e salvando
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        // salvando o usuário administrador
+        projectUserRepository.save(ADMIN);
+
+        List<AnimePutRequestBody> animePutRequestBodies = List.of(AnimePutRequestBody.builder()
+                .id(savedAnime.getId()).name("Overlord").version(savedAnime.getVersion() + 1).build());
+
+        ResponseEntity<AnimeBatchUpdateResponse> response = testRestTemplateRoleAdmin.exchange("/animes/admin/batch",
+                HttpMethod.PUT, new HttpEntity<>(animePutRequestBodies), AnimeBatchUpdateResponse.class);
+
+        Assertions.assertThat(response.getBody()).isNotNull();
+        Assertions.assertThat(response.getBody().getUpdated()).isZero();
+        Assertions.assertThat(response.getBody().getConflictIds()).containsExactly(savedAnime.getId());
+        Assertions.assertThat(response.getBody().getMissingIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("replaceAll updates the existing animes and returns the missing ids")
+    void replaceAllUpdatesTheExistingAnimesAndReturnsTheMissingIds() {
+        // criando dois animes e salvando
+        Anime firstAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        Anime secondAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        // salvando o usuário administrador
+        projectUserRepository.save(ADMIN);
+
+        // carregando o anime no cache de segundo nível antes do update
+        testRestTemplateRoleAdmin.getForEntity("/animes/{id}", Anime.class, firstAnime.getId());
+
+        List<AnimePutRequestBody> animePutRequestBodies = List.of(
+                AnimePutRequestBody.builder().id(firstAnime.getId()).name("Overlord").build(),
+                AnimePutRequestBody.builder().id(secondAnime.getId()).name("Berserk").build(),
+                AnimePutRequestBody.builder().id(Long.MAX_VALUE).name("Missing").build());
+
+        ResponseEntity<AnimeBatchUpdateResponse> response = testRestTemplateRoleAdmin.exchange("/animes/admin/batch",
+                HttpMethod.PUT, new HttpEntity<>(animePutRequestBodies), AnimeBatchUpdateResponse.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getBody()).isNotNull();
+        Assertions.assertThat(response.getBody().getUpdated()).isEqualTo(2);
+        Assertions.assertThat(response.getBody().getMissingIds()).containsExactly(Long.MAX_VALUE);
+
+        // o findById não retorna o valor antigo guardado no cache
+        Anime updatedAnime = testRestTemplateRoleAdmin.getForObject("/animes/{id}", Anime.class, firstAnime.getId());
+        Assertions.assertThat(updatedAnime.getName()).isEqualTo("Overlord");
+    }
+
+    @Test
+    @DisplayName("replaceAll returns 403 when user is not admin")
+    void replaceAllReturns403WhenUserIsNotAdmin() {
+        // salvando o usuário
+        projectUserRepository.save(USER);
+
+        List<AnimePutRequestBody> animePutRequestBodies = List.of(AnimePutRequestBody.builder().id(1L).name("Overlord").build());
+
+        ResponseEntity<Void> response = testRestTemplateRoleUser.exchange("/animes/admin/batch",
+                HttpMethod.PUT, new HttpEntity<>(animePutRequestBodies), Void.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
     @Test
     @DisplayName("replace updates anime when successful")
     void replaceUpdatesAnimeWhenSuccesful() {
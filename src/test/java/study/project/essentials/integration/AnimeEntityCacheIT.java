@@ -0,0 +1,74 @@
+package study.project.essentials.integration;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.service.AnimeService;
+import study.project.essentials.util.AnimeCreator;
+
+import javax.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class AnimeEntityCacheIT {
+
+    @Autowired
+    private AnimeService animeService;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException returns anime from second level cache when called twice")
+    void findByIdReturnsAnimeFromSecondLevelCacheWhenCalledTwice() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        animeService.findByIdOrThrowBadRequestException(savedAnime.getId());
+        statistics.clear();
+
+        Anime anime = animeService.findByIdOrThrowBadRequestException(savedAnime.getId());
+
+        Assertions.assertThat(anime.getName()).isEqualTo(savedAnime.getName());
+        // a segunda consulta foi atendida pelo cache sem ir ao banco
+        Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        Assertions.assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException returns the new name after replace")
+    void findByIdReturnsNewNameAfterReplace() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        animeService.findByIdOrThrowBadRequestException(savedAnime.getId());
+
+        animeService.replace(AnimePutRequestBody.builder()
+                .id(savedAnime.getId())
+                .name("new name")
+                .build());
+
+        Assertions.assertThat(animeService.findByIdOrThrowBadRequestException(savedAnime.getId()).getName())
+                .isEqualTo("new name");
+    }
+
+}
@@ -0,0 +1,57 @@
+package study.project.essentials.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.util.AnimeCreator;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+// os testes usam somente o SimpleMeterRegistry, habilitando o registry do prometheus
+@AutoConfigureMetrics
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class AnimeMetricsIT {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Test
+    @DisplayName("prometheus exposes the service, repository and jdbc timers tagged by endpoint and outcome")
+    void prometheusExposesTheTimersTaggedByEndpointAndOutcome() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        testRestTemplate.withBasicAuth("Tyler", "project")
+                .getForEntity("/animes/{id}", Anime.class, savedAnime.getId());
+        testRestTemplate.withBasicAuth("Tyler", "project")
+                .getForEntity("/animes/{id}", String.class, -1);
+
+        ResponseEntity<String> prometheus = testRestTemplate.withBasicAuth("Tyler", "project")
+                .getForEntity("/actuator/prometheus", String.class);
+
+        Assertions.assertThat(prometheus.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(prometheus.getBody())
+                .contains("essentials_anime_service_seconds_bucket{class=\"AnimeService\",endpoint=\"GET /animes/{id}\","
+                        + "exception=\"none\",method=\"findByIdOrThrowBadRequestException\",outcome=\"SUCCESS\"")
+                .contains("essentials_anime_service_seconds_count{class=\"AnimeService\",endpoint=\"GET /animes/{id}\","
+                        + "exception=\"BadRequestException\",method=\"findByIdOrThrowBadRequestException\",outcome=\"ERROR\",} 1.0")
+                .containsPattern("spring_data_repository_invocations_seconds_count\\{endpoint=\"GET /animes/\\{id}\","
+                        + "exception=\"None\",method=\"findById\",repository=\"AnimeRepository\",state=\"SUCCESS\",} \\d")
+                .contains("essentials_jdbc_query_seconds_bucket{endpoint=\"none\",exception=\"none\",operation=\"insert\",outcome=\"SUCCESS\"")
+                .contains("essentials_anime_service_seconds{class=\"AnimeService\",endpoint=\"GET /animes/{id}\","
+                        + "exception=\"none\",method=\"findByIdOrThrowBadRequestException\",outcome=\"SUCCESS\",quantile=\"0.99\",}");
+    }
+
+}
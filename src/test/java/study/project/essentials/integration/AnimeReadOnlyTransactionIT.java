@@ -0,0 +1,104 @@
+package study.project.essentials.integration;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.responses.AnimeResponse;
+import study.project.essentials.service.AnimeService;
+import study.project.essentials.util.AnimeCreator;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class AnimeReadOnlyTransactionIT {
+
+    @Autowired
+    private AnimeService animeService;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // EntityManager da transação em andamento
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("read methods run without flushing the persistence context")
+    void readMethodsRunWithoutFlushingThePersistenceContext() {
+        long id = animeService.listAll(PageRequest.of(0, 10)).getContent().get(0).getId();
+        animeService.listAllNonPageable();
+        animeService.findByName(AnimeCreator.createAnimeToBeSaved().getName(), PageRequest.of(0, 10));
+        animeService.findByIdOrThrowBadRequestException(id);
+
+        Assertions.assertThat(statistics.getEntityLoadCount()).isPositive();
+        Assertions.assertThat(statistics.getFlushCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("list projections are read without loading entities in the persistence context")
+    void listProjectionsAreReadWithoutLoadingEntities() {
+        Assertions.assertThat(animeService.listAllNonPageable()).hasSize(1);
+        Assertions.assertThat(animeService.findByName(AnimeCreator.createAnimeToBeSaved().getName(), PageRequest.of(0, 10)).getContent()).hasSize(1);
+        Assertions.assertThat(animeService.listAllByVersions(animeService.listVersions(PageRequest.of(0, 10))).getContent())
+                .hasSize(1);
+
+        Assertions.assertThat(statistics.getEntityLoadCount()).isZero();
+        Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("streamAll passes read-only animes to the consumer")
+    void streamAllPassesReadOnlyAnimesToTheConsumer() {
+        List<Boolean> readOnly = new ArrayList<>();
+
+        animeService.streamAll(anime -> readOnly.add(entityManager.unwrap(Session.class).isReadOnly(anime)));
+
+        Assertions.assertThat(readOnly).containsExactly(true);
+    }
+
+    @Test
+    @DisplayName("replace still flushes the update after the anime was read in a read-only transaction")
+    void replaceFlushesTheUpdateAfterAReadOnlyRead() {
+        AnimeResponse anime = animeService.listAllNonPageable().get(0);
+
+        animeService.replace(AnimePutRequestBody.builder()
+                .id(anime.getId())
+                .name("new name")
+                .build());
+
+        Assertions.assertThat(statistics.getFlushCount()).isPositive();
+        Assertions.assertThat(animeService.findByIdOrThrowBadRequestException(anime.getId()))
+                .extracting(Anime::getName, Anime::getVersion)
+                .containsExactly("new name", anime.getVersion() + 1);
+    }
+
+}
@@ -0,0 +1,135 @@
+package study.project.essentials.integration;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.service.AnimeResponseCache;
+import study.project.essentials.util.AnimeCreator;
+import study.project.essentials.util.AnimePostRequestBodyCreator;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class AnimeResponseCacheIT {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Autowired
+    private AnimeResponseCache animeResponseCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+    }
+
+    // usuário em memória do SecurityConfig, a autenticação não consulta o banco
+    private ResponseEntity<byte[]> get(String path, HttpHeaders headers) {
+        return testRestTemplate.withBasicAuth("Tyler", "project")
+                .exchange(path, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+
+    @Test
+    @DisplayName("list answers the second request from the cache without querying the database")
+    void listAnswersTheSecondRequestFromTheCacheWithoutQueryingTheDatabase() {
+        ResponseEntity<byte[]> first = get("/animes?page=0&size=20", new HttpHeaders());
+        statistics.clear();
+
+        ResponseEntity<byte[]> second = get("/animes?page=0&size=20", new HttpHeaders());
+
+        Assertions.assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(second.getBody()).isEqualTo(first.getBody());
+        Assertions.assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+        // o Vary é enviado na resposta montada pelo controller e na resposta guardada
+        Assertions.assertThat(first.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        Assertions.assertThat(second.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        // somente a consulta do usuário da autenticação, nenhuma consulta de animes
+        Assertions.assertThat(statistics.getQueries()).noneMatch(query -> query.contains("Anime"));
+        Assertions.assertThat(animeResponseCache.getResponses().stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("listAll sends the stored gzip bytes to clients that accept gzip")
+    void listAllSendsTheStoredGzipBytesToClientsThatAcceptGzip() throws IOException {
+        String body = new String(get("/animes/all", new HttpHeaders()).getBody(), StandardCharsets.UTF_8);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        ResponseEntity<byte[]> gzipped = get("/animes/all", headers);
+
+        Assertions.assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        Assertions.assertThat(gzipped.getHeaders().getFirst(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            Assertions.assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(body)
+                    .contains(AnimeCreator.createAnimeToBeSaved().getName());
+        }
+    }
+
+    @Test
+    @DisplayName("list returns 304 from the cached ETag")
+    void listReturns304FromTheCachedETag() {
+        String eTag = get("/animes", new HttpHeaders()).getHeaders().getETag();
+        statistics.clear();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<byte[]> notModified = get("/animes", headers);
+
+        Assertions.assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        // somente a consulta do usuário da autenticação, nenhuma consulta de animes
+        Assertions.assertThat(statistics.getQueries()).noneMatch(query -> query.contains("Anime"));
+    }
+
+    @Test
+    @DisplayName("save removes the cached pages")
+    void saveRemovesTheCachedPages() {
+        get("/animes/all", new HttpHeaders());
+
+        testRestTemplate.withBasicAuth("Tyler", "project")
+                .postForEntity("/animes", AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+        String body = new String(get("/animes/all", new HttpHeaders()).getBody(), StandardCharsets.UTF_8);
+
+        Assertions.assertThat(body.split("\"id\"")).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("list does not cache the pages after hot-pages")
+    void listDoesNotCacheThePagesAfterHotPages() {
+        get("/animes?page=5", new HttpHeaders());
+        get("/animes?page=5", new HttpHeaders());
+
+        Assertions.assertThat(animeResponseCache.getResponses().estimatedSize()).isZero();
+    }
+
+}
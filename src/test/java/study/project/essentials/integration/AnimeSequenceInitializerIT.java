@@ -0,0 +1,81 @@
+package study.project.essentials.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.service.AnimeBatchService;
+import study.project.essentials.service.AnimeSequenceInitializer;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class AnimeSequenceInitializerIT {
+    private static final int EXISTING_ANIMES = 120;
+
+    @Autowired
+    private AnimeSequenceInitializer animeSequenceInitializer;
+
+    @Autowired
+    private AnimeBatchService animeBatchService;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("saveAll inserts after the ids of the animes saved before the sequence existed")
+    void saveAll_InsertsAfterExistingIds_WhenTheTableAlreadyHasRows() {
+        // animes de um banco existente, com os ids que a sequence recém-criada ainda vai gerar
+        List<Long> existingIds = LongStream.rangeClosed(1, EXISTING_ANIMES).boxed().collect(Collectors.toList());
+        Timestamp updatedAt = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate("insert into anime (id, name, search_name, version, updated_at) values (?, ?, ?, 0, ?)",
+                existingIds, AnimeBatchService.UPDATE_BATCH_SIZE, (preparedStatement, id) -> {
+                    preparedStatement.setLong(1, id);
+                    preparedStatement.setString(2, "Legacy " + id);
+                    preparedStatement.setString(3, "legacy " + id);
+                    preparedStatement.setTimestamp(4, updatedAt);
+                });
+
+        animeSequenceInitializer.initialize();
+
+        List<AnimePostRequestBody> animePostRequestBodies = LongStream.rangeClosed(1, EXISTING_ANIMES)
+                .mapToObj(i -> AnimePostRequestBody.builder().name("Anime " + i).build())
+                .collect(Collectors.toList());
+        List<Anime> savedAnimes = animeBatchService.saveAll(animePostRequestBodies);
+
+        Assertions.assertThat(savedAnimes)
+                .extracting(Anime::getId)
+                .allMatch(id -> id > EXISTING_ANIMES)
+                .doesNotHaveDuplicates();
+        Assertions.assertThat(animeRepository.count()).isEqualTo(2L * EXISTING_ANIMES);
+    }
+
+    @Test
+    @DisplayName("initialize keeps the sequence when it is already after the anime ids")
+    void initialize_KeepsTheSequence_WhenItIsAlreadyAfterTheAnimeIds() {
+        List<Anime> savedAnimes = animeBatchService.saveAll(List.of(AnimePostRequestBody.builder().name("Kingdom").build()));
+
+        animeSequenceInitializer.initialize();
+
+        Anime nextAnime = animeBatchService.saveAll(List.of(AnimePostRequestBody.builder().name("Berserk").build())).get(0);
+        Assertions.assertThat(nextAnime.getId()).isGreaterThan(savedAnimes.get(0).getId());
+        Assertions.assertThat(animeRepository.count()).isEqualTo(2L);
+    }
+
+}
@@ -0,0 +1,117 @@
+package study.project.essentials.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.domain.ProjectUser;
+import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.repository.ProjectUserRepository;
+import study.project.essentials.requests.LoginPostRequestBody;
+import study.project.essentials.responses.TokenResponse;
+import study.project.essentials.util.AnimeCreator;
+
+// iniciando o spring no modo de autenticação por token
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "essentials.security.token.enabled=true",
+        "essentials.security.token.key-id=test",
+        "essentials.security.token.keys.test=a-local-signing-key-with-at-least-32-bytes"
+})
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class AuthControllerIT {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Autowired
+    private ProjectUserRepository projectUserRepository;
+
+    // criando um usuario comum
+    private static final ProjectUser USER = ProjectUser.builder()
+            .name("Lon Hammond")
+            .password("{bcrypt}$2a$10$p6/kb8QCnI08fibnlUcdhOlntgM8fwu3NGSNfHfIDYgSQ.zriZakK")
+            .username("Lon")
+            .authorities("ROLE_USER")
+            .build();
+
+    // realizando o login e retornando o header com o token
+    private HttpHeaders login(String username, String password) {
+        ResponseEntity<TokenResponse> tokenResponse = testRestTemplate.postForEntity("/auth/login",
+                new LoginPostRequestBody(username, password), TokenResponse.class);
+
+        Assertions.assertThat(tokenResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(tokenResponse.getBody()).isNotNull();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tokenResponse.getBody().getAccessToken());
+        return headers;
+    }
+
+    @Test
+    @DisplayName("findById returns anime when the bearer token is valid")
+    void findByIdReturnsAnimeWhenBearerTokenIsValid() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        projectUserRepository.save(USER);
+
+        ResponseEntity<Anime> animeResponseEntity = testRestTemplate.exchange("/animes/{id}", HttpMethod.GET,
+                new HttpEntity<>(login("Lon", "project")), Anime.class, savedAnime.getId());
+
+        Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(animeResponseEntity.getBody()).isNotNull();
+        Assertions.assertThat(animeResponseEntity.getBody().getId()).isEqualTo(savedAnime.getId());
+        // o modo stateless não cria sessão
+        Assertions.assertThat(animeResponseEntity.getHeaders().get(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    @Test
+    @DisplayName("login returns 401 when password is wrong")
+    void loginReturns401WhenPasswordIsWrong() {
+        projectUserRepository.save(USER);
+
+        ResponseEntity<TokenResponse> tokenResponse = testRestTemplate.postForEntity("/auth/login",
+                new LoginPostRequestBody("Lon", "wrong"), TokenResponse.class);
+
+        Assertions.assertThat(tokenResponse.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    @DisplayName("list returns 401 when the bearer token is invalid")
+    void listReturns401WhenBearerTokenIsInvalid() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth("invalid.token.value");
+
+        ResponseEntity<String> response = testRestTemplate.exchange("/animes", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    @DisplayName("replace returns 403 when the token does not have the admin role")
+    void replaceReturns403WhenTokenIsNotAdmin() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        projectUserRepository.save(USER);
+
+        savedAnime.setName("new name");
+
+        ResponseEntity<Void> animeResponseEntity = testRestTemplate.exchange("/animes/admin", HttpMethod.PUT,
+                new HttpEntity<>(savedAnime, login("Lon", "project")), Void.class);
+
+        Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+}
@@ -0,0 +1,85 @@
+package study.project.essentials.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.test.annotation.DirtiesContext;
+import study.project.essentials.domain.ProjectUser;
+import study.project.essentials.repository.ProjectUserRepository;
+
+// iniciando o spring no modo http basic com o cache de credenciais verificadas
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "essentials.security.credential-cache.enabled=true"
+})
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class CredentialCacheIT {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private ProjectUserRepository projectUserRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // criando um usuario comum
+    private static final ProjectUser USER = ProjectUser.builder()
+            .name("Lon Hammond")
+            .password("{bcrypt}$2a$10$p6/kb8QCnI08fibnlUcdhOlntgM8fwu3NGSNfHfIDYgSQ.zriZakK")
+            .username("Lon")
+            .authorities("ROLE_USER")
+            .build();
+
+    // status do GET /animes com http basic
+    private HttpStatus listWithBasicAuth(String username, String password) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBasicAuth(username, password);
+        // sem o header a falha de autenticação é redirecionada para a página do form login
+        headers.set("X-Requested-With", "XMLHttpRequest");
+        return testRestTemplate.exchange("/animes", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+                .getStatusCode();
+    }
+
+    @Test
+    @DisplayName("http basic reuses the verified credential and runs the password encoder once")
+    void httpBasicReusesTheVerifiedCredential() {
+        projectUserRepository.save(USER);
+
+        Assertions.assertThat(listWithBasicAuth("Lon", "project")).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(listWithBasicAuth("Lon", "project")).isEqualTo(HttpStatus.OK);
+
+        // a segunda requisição é autenticada pelo CredentialCachingAuthenticationManager sem o bcrypt
+        Assertions.assertThat(meterRegistry.get("essentials.auth.password.verification").timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", "verifiedCredentials").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("http basic rejects the previous password after the password is changed")
+    void httpBasicRejectsThePreviousPasswordAfterThePasswordIsChanged() {
+        projectUserRepository.save(USER);
+
+        // a credencial com a senha antiga fica no cache
+        Assertions.assertThat(listWithBasicAuth("Lon", "project")).isEqualTo(HttpStatus.OK);
+
+        ProjectUser projectUser = projectUserRepository.findByUsername("Lon");
+        projectUser.setPassword(PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("changed"));
+        projectUserRepository.save(projectUser);
+
+        Assertions.assertThat(listWithBasicAuth("Lon", "project")).isEqualTo(HttpStatus.UNAUTHORIZED);
+        Assertions.assertThat(listWithBasicAuth("Lon", "changed")).isEqualTo(HttpStatus.OK);
+    }
+
+}
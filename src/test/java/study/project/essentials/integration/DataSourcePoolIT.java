@@ -0,0 +1,75 @@
+package study.project.essentials.integration;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.util.AnimeCreator;
+
+import javax.sql.DataSource;
+
+// hikari sobre o h2 em memória, sem o @AutoConfigureTestDatabase (que substitui o pool por um DataSource simples)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:essentials-pool;DB_CLOSE_DELAY=-1",
+        "spring.datasource.userName=sa",
+        "spring.datasource.password=",
+        "essentials.datasource.pool.expected-concurrency=3"
+})
+@AutoConfigureMetrics
+class DataSourcePoolIT {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Test
+    @DisplayName("pool size is derived from the core count and limited by the expected concurrency")
+    void poolSizeIsLimitedByTheExpectedConcurrency() {
+        HikariDataSource hikariDataSource = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+
+        Assertions.assertThat(hikariDataSource).isNotNull();
+        Assertions.assertThat(hikariDataSource.getMaximumPoolSize())
+                .isEqualTo(Math.max(2, Math.min(3, Runtime.getRuntime().availableProcessors() * 2 + 1)));
+        Assertions.assertThat(hikariDataSource.getPoolName()).isEqualTo("essentials-pool");
+        Assertions.assertThat(hikariDataSource.getLeakDetectionThreshold()).isEqualTo(60_000);
+    }
+
+    @Test
+    @DisplayName("health and prometheus expose the pool state and the connection acquisition time")
+    void healthAndPrometheusExposeThePoolState() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        testRestTemplate.withBasicAuth("Tyler", "project")
+                .getForEntity("/animes/{id}", Anime.class, savedAnime.getId());
+
+        ResponseEntity<String> health = testRestTemplate.withBasicAuth("Tyler", "project")
+                .getForEntity("/actuator/health/dataSourcePool", String.class);
+        ResponseEntity<String> prometheus = testRestTemplate.withBasicAuth("Tyler", "project")
+                .getForEntity("/actuator/prometheus", String.class);
+
+        Assertions.assertThat(health.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(health.getBody())
+                .contains("\"status\":\"UP\"")
+                .contains("\"pool\":\"essentials-pool\"")
+                .contains("\"saturated\":false");
+        Assertions.assertThat(prometheus.getBody())
+                .contains("hikaricp_connections_acquire_seconds_bucket{pool=\"essentials-pool\"")
+                .contains("hikaricp_connections_active{pool=\"essentials-pool\",}")
+                .contains("hikaricp_connections_pending{pool=\"essentials-pool\",}");
+    }
+
+}
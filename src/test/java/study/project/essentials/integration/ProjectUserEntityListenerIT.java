@@ -0,0 +1,66 @@
+package study.project.essentials.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import study.project.essentials.domain.ProjectUser;
+import study.project.essentials.repository.ProjectUserRepository;
+
+// http basic com o cache de usuários e o cache de credenciais verificadas
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "essentials.security.credential-cache.enabled=true"
+})
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ProjectUserEntityListenerIT {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private ProjectUserRepository projectUserRepository;
+
+    // criando um usuario comum
+    private static final ProjectUser USER = ProjectUser.builder()
+            .name("Lon Hammond")
+            .password("{bcrypt}$2a$10$p6/kb8QCnI08fibnlUcdhOlntgM8fwu3NGSNfHfIDYgSQ.zriZakK")
+            .username("Lon")
+            .authorities("ROLE_USER")
+            .build();
+
+    // status do GET /animes com http basic
+    private HttpStatus listWithBasicAuth(String username, String password) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBasicAuth(username, password);
+        // sem o header a falha de autenticação é redirecionada para a página do form login
+        headers.set("X-Requested-With", "XMLHttpRequest");
+        return testRestTemplate.exchange("/animes", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+                .getStatusCode();
+    }
+
+    @Test
+    @DisplayName("the previous username stops authenticating after the user is renamed")
+    void thePreviousUsernameStopsAuthenticatingAfterTheUserIsRenamed() {
+        projectUserRepository.save(USER);
+
+        // a primeira requisição guarda o usuário e a credencial verificada nos caches
+        Assertions.assertThat(listWithBasicAuth("Lon", "project")).isEqualTo(HttpStatus.OK);
+
+        ProjectUser projectUser = projectUserRepository.findByUsername("Lon");
+        projectUser.setUsername("Lonnie");
+        projectUserRepository.save(projectUser);
+
+        Assertions.assertThat(listWithBasicAuth("Lon", "project")).isEqualTo(HttpStatus.UNAUTHORIZED);
+        Assertions.assertThat(listWithBasicAuth("Lonnie", "project")).isEqualTo(HttpStatus.OK);
+    }
+
+}
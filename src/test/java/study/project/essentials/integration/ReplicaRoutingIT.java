@@ -0,0 +1,215 @@
+package study.project.essentials.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.responses.AnimeBatchUpdateResponse;
+import study.project.essentials.responses.AnimeResponse;
+import study.project.essentials.service.AnimeResponseCache;
+import study.project.essentials.service.AnimeService;
+import study.project.essentials.wrapper.SliceableResponse;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+// dois bancos h2 em memória: o primário (spring.datasource) e uma réplica de leitura que nunca recebe as escritas
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=" + ReplicaRoutingIT.PRIMARY_URL,
+        "spring.datasource.userName=sa",
+        "spring.datasource.password=",
+        "essentials.datasource.routing.replicas[0].url=" + ReplicaRoutingIT.REPLICA_URL,
+        // maior que a duração do teste, a réplica daqui nunca recebe as escritas
+        "essentials.datasource.routing.primary-after-write=1m"
+})
+// as leituras ficam no primário logo depois de uma escrita, cada teste começa com o contexto novo
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ReplicaRoutingIT {
+    static final String PRIMARY_URL = "jdbc:h2:mem:essentials-routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:essentials-routing-replica;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private AnimeService animeService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private AnimeResponseCache animeResponseCache;
+
+    // o hibernate cria as tabelas somente no primário, a réplica recebe o mesmo schema sem os dados
+    @BeforeEach
+    void setUp() {
+        replica.execute("drop all objects");
+        primary.queryForList("script nodata nopasswords nosettings", String.class).stream()
+                .filter(statement -> !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+        primary.update("delete from anime");
+    }
+
+    @Test
+    @DisplayName("findByName reads from the replica")
+    void findByNameReadsFromTheReplica() {
+        replica.update("insert into anime (id, name, version, search_name) values (900, 'Replica Anime', 0, 'replica anime')");
+
+        Slice<AnimeResponse> animes = animeService.findByName("Replica Anime", PageRequest.of(0, 10));
+
+        Assertions.assertThat(animes).extracting(AnimeResponse::getId).containsExactly(900L);
+    }
+
+    @Test
+    @DisplayName("save writes to the primary")
+    void saveWritesToThePrimary() {
+        Anime savedAnime = animeService.save(AnimePostRequestBody.builder().name("Primary Anime").build());
+
+        Assertions.assertThat(primary.queryForObject("select count(*) from anime where id = ?", Long.class, savedAnime.getId()))
+                .isEqualTo(1);
+        Assertions.assertThat(replica.queryForObject("select count(*) from anime", Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("read-only methods called inside a write transaction read from the primary")
+    void readOnlyMethodsInsideAWriteTransactionReadFromThePrimary() {
+        primary.update("insert into anime (id, name, version, search_name) values (901, 'Written Anime', 0, 'written anime')");
+
+        Slice<AnimeResponse> animes = transactionTemplate.execute(status -> animeService.findByName("Written Anime", PageRequest.of(0, 10)));
+
+        Assertions.assertThat(animes).extracting(AnimeResponse::getId).containsExactly(901L);
+    }
+
+    @Test
+    @DisplayName("save writes to the primary after a replica read in the same open entity manager (open-in-view)")
+    void saveWritesToThePrimaryAfterAReplicaReadInTheSameEntityManager() {
+        // o OpenEntityManagerInViewInterceptor mantém o mesmo EntityManager durante toda a requisição
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            animeService.findByName("Replica Anime", PageRequest.of(0, 10));
+            Anime savedAnime = animeService.save(AnimePostRequestBody.builder().name("Primary Anime").build());
+
+            Assertions.assertThat(primary.queryForObject("select count(*) from anime where id = ?", Long.class, savedAnime.getId()))
+                    .isEqualTo(1);
+            Assertions.assertThat(replica.queryForObject("select count(*) from anime", Long.class)).isZero();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    @Test
+    @DisplayName("findById and findByName return the anime saved by the previous request while the replica lags behind")
+    void findByIdReturnsTheAnimeSavedByThePreviousRequestWhileTheReplicaLagsBehind() {
+        // usuário em memória do SecurityConfig
+        TestRestTemplate user = testRestTemplate.withBasicAuth("Tyler", "project");
+        ResponseEntity<Anime> saved = user.postForEntity("/animes",
+                AnimePostRequestBody.builder().name("Primary Anime").build(), Anime.class);
+        Assertions.assertThat(saved.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        // sem o cache de segundo nível o findById consulta o banco, como em outra instância da api
+        entityManagerFactory.getCache().evictAll();
+
+        ResponseEntity<Anime> found = user.getForEntity("/animes/{id}", Anime.class, saved.getBody().getId());
+        ResponseEntity<SliceableResponse<AnimeResponse>> foundByName = user.exchange("/animes/find?name={name}",
+                HttpMethod.GET, null, new ParameterizedTypeReference<SliceableResponse<AnimeResponse>>() {
+                }, "Primary Anime");
+
+        Assertions.assertThat(found.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(found.getBody().getName()).isEqualTo("Primary Anime");
+        Assertions.assertThat(foundByName.getBody().getContent()).extracting(AnimeResponse::getId)
+                .containsExactly(saved.getBody().getId());
+        // a réplica continua sem o anime
+        Assertions.assertThat(replica.queryForObject("select count(*) from anime", Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("listAll is not cached from the lagging replica after an anime is saved")
+    void listAllIsNotCachedFromTheLaggingReplicaAfterAnAnimeIsSaved() {
+        // anime já replicado, nos dois bancos
+        primary.update("insert into anime (id, name, version, search_name) values (900, 'Replica Anime', 0, 'replica anime')");
+        replica.update("insert into anime (id, name, version, search_name) values (900, 'Replica Anime', 0, 'replica anime')");
+        TestRestTemplate user = testRestTemplate.withBasicAuth("Tyler", "project");
+        Assertions.assertThat(user.getForObject("/animes/all", AnimeResponse[].class)).hasSize(1);
+        Assertions.assertThat(animeResponseCache.get("/animes/all")).isPresent();
+
+        user.postForEntity("/animes", AnimePostRequestBody.builder().name("Primary Anime").build(), Anime.class);
+        ResponseEntity<AnimeResponse[]> afterSave = user.getForEntity("/animes/all", AnimeResponse[].class);
+
+        Assertions.assertThat(afterSave.getBody()).extracting(AnimeResponse::getName)
+                .containsExactlyInAnyOrder("Replica Anime", "Primary Anime");
+        Assertions.assertThat(afterSave.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        // a resposta só volta a ser guardada quando a réplica já recebeu a alteração
+        Assertions.assertThat(animeResponseCache.get("/animes/all")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findById does not fill the second-level cache from the lagging replica after a batch replace")
+    void findByIdDoesNotFillTheEntityCacheFromTheLaggingReplicaAfterABatchReplace() {
+        primary.update("insert into anime (id, name, version, search_name) values (900, 'Replica Anime', 0, 'replica anime')");
+        replica.update("insert into anime (id, name, version, search_name) values (900, 'Replica Anime', 0, 'replica anime')");
+
+        // o update em lote via jdbc remove o anime do cache de segundo nível
+        ResponseEntity<AnimeBatchUpdateResponse> replaced = testRestTemplate.withBasicAuth("Noah", "project")
+                .exchange("/animes/admin/batch", HttpMethod.PUT,
+                        new HttpEntity<>(List.of(AnimePutRequestBody.builder().id(900L).name("Renamed Anime").build())),
+                        AnimeBatchUpdateResponse.class);
+        Assertions.assertThat(replaced.getBody().getUpdated()).isEqualTo(1);
+
+        TestRestTemplate user = testRestTemplate.withBasicAuth("Tyler", "project");
+        // a primeira leitura preenche o cache de segundo nível, a segunda é respondida por ele
+        Assertions.assertThat(user.getForObject("/animes/{id}", Anime.class, 900).getName()).isEqualTo("Renamed Anime");
+        Assertions.assertThat(entityManagerFactory.getCache().contains(Anime.class, 900L)).isTrue();
+        Assertions.assertThat(user.getForObject("/animes/{id}", Anime.class, 900).getName()).isEqualTo("Renamed Anime");
+    }
+
+    @Test
+    @DisplayName("dataSourcePool health reports the primary and the replica pools")
+    void dataSourcePoolHealthReportsThePrimaryAndTheReplicaPools() {
+        replica.update("insert into anime (id, name, version, search_name) values (900, 'Replica Anime', 0, 'replica anime')");
+        // inicia o pool da réplica
+        animeService.findByName("Replica Anime", PageRequest.of(0, 10));
+
+        ResponseEntity<String> health = testRestTemplate.withBasicAuth("Tyler", "project")
+                .getForEntity("/actuator/health/dataSourcePool", String.class);
+        ResponseEntity<String> replicaHealth = testRestTemplate.withBasicAuth("Tyler", "project")
+                .getForEntity("/actuator/health/dataSourcePool/replica-0", String.class);
+
+        Assertions.assertThat(health.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(health.getBody())
+                .contains("\"primary\"")
+                .contains("\"replica-0\"");
+        Assertions.assertThat(replicaHealth.getBody())
+                .contains("\"status\":\"UP\"")
+                .contains("\"pool\":\"essentials-pool-replica-0\"")
+                .contains("\"window\":\"PT1M\"");
+    }
+
+}
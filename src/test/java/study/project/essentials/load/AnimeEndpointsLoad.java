@@ -0,0 +1,149 @@
+package study.project.essentials.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.service.AnimeBatchService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Teste de carga dos endpoints de anime com a aplicação completa sobre o h2 em memória.
+ * Executado somente no perfil load-tests: mvn test -Pload-tests -Dload.animes=50000 -Dload.concurrency=32
+ *
+ * load.animes (10000), load.concurrency (16), load.warmup (PT5S), load.duration (PT20S),
+ * load.endpoints (list,all,find,save), load.max-error-rate (0.01), load.result (target/load-tests/anime-load.json)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Log4j2
+class AnimeEndpointsLoad {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String ANIME_NAME = "Anime %d";
+
+    private final int animes = Integer.getInteger("load.animes", 10_000);
+    private final int concurrency = Integer.getInteger("load.concurrency", 16);
+    private final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private final List<String> endpoints = Arrays.asList(System.getProperty("load.endpoints", "list,all,find,save").split(","));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private final Path resultFile = Path.of(System.getProperty("load.result", "target/load-tests/anime-load.json"));
+
+    // usuário em memória do SecurityConfig com a role USER
+    private final String authorization = "Basic " + Base64.getEncoder()
+            .encodeToString("Tyler:project".getBytes(StandardCharsets.UTF_8));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AnimeBatchService animeBatchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // inserindo o volume de dados pelo mesmo caminho do POST /animes/batch
+    @BeforeAll
+    void seed() {
+        long start = System.nanoTime();
+        for (int first = 1; first <= animes; first += AnimeBatchService.MAXIMUM_BATCH_SIZE) {
+            List<AnimePostRequestBody> batch = IntStream.rangeClosed(first, Math.min(animes, first + AnimeBatchService.MAXIMUM_BATCH_SIZE - 1))
+                    .mapToObj(index -> AnimePostRequestBody.builder().name(String.format(ANIME_NAME, index)).build())
+                    .collect(Collectors.toList());
+            animeBatchService.saveAll(batch);
+        }
+        log.info("Seeded {} animes in {} ms", animes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    void animeEndpointsSustainTheConfiguredLoad() throws InterruptedException, IOException {
+        LoadDriver loadDriver = new LoadDriver(concurrency, warmup, duration);
+
+        List<LoadResult> results = new ArrayList<>();
+        for (LoadScenario scenario : scenarios()) {
+            log.info("Running '{}' with {} virtual users for {}", scenario.getName(), concurrency, duration);
+            results.add(loadDriver.run(scenario));
+        }
+
+        log.info(report(results));
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultFile.toFile(), results);
+        log.info("Load test results written to {}", resultFile.toAbsolutePath());
+
+        Assertions.assertThat(results)
+                .allSatisfy(result -> Assertions.assertThat(result.getErrorRate())
+                        .as("error rate of %s, statuses %s", result.getEndpoint(), result.getStatuses())
+                        .isLessThanOrEqualTo(maxErrorRate));
+    }
+
+    private List<LoadScenario> scenarios() {
+        List<LoadScenario> scenarios = new ArrayList<>();
+        if (endpoints.contains("list")) {
+            // páginas aleatórias de 20 animes
+            scenarios.add(new LoadScenario("GET /animes", sequence -> get("/animes?size=20&page="
+                    + ThreadLocalRandom.current().nextInt(Math.max(1, animes / 20)))));
+        }
+        if (endpoints.contains("all")) {
+            scenarios.add(new LoadScenario("GET /animes/all", sequence -> get("/animes/all")));
+        }
+        if (endpoints.contains("find")) {
+            scenarios.add(new LoadScenario("GET /animes/find", sequence -> get("/animes/find?name="
+                    + URLEncoder.encode(String.format(ANIME_NAME, ThreadLocalRandom.current().nextInt(1, animes + 1)),
+                    StandardCharsets.UTF_8))));
+        }
+        if (endpoints.contains("save")) {
+            scenarios.add(new LoadScenario("POST /animes", sequence -> request("/animes")
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Load Anime " + sequence + "\"}"))
+                    .build()));
+        }
+        return scenarios;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header(HttpHeaders.AUTHORIZATION, authorization);
+    }
+
+    private String report(List<LoadResult> results) {
+        StringBuilder report = new StringBuilder(String.format("%nLoad test: %d animes, %d virtual users, %s per endpoint%n",
+                animes, concurrency, duration));
+        report.append(String.format("%-18s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "rps", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        results.forEach(result -> report.append(String.format("%-18s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                result.getEndpoint(), result.getRequests(), result.getErrors(), result.getRequestsPerSecond(),
+                result.getP50Ms(), result.getP99Ms(), result.getP999Ms(), result.getMaxMs())));
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,135 @@
+package study.project.essentials.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carga em malha fechada: cada usuário virtual envia a próxima requisição assim que recebe a resposta.
+ * Cada usuário tem o próprio HttpClient (conexão keep-alive e cookie de sessão, como um navegador),
+ * a latência é medida do envio até o corpo da resposta ser lido por completo.
+ */
+public class LoadDriver {
+    private static final long MAXIMUM_TRACKABLE_LATENCY = TimeUnit.MINUTES.toNanos(1);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final List<HttpClient> clients = new ArrayList<>();
+
+    public LoadDriver(int concurrency, Duration warmup, Duration duration) {
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        for (int i = 0; i < concurrency; i++) {
+            clients.add(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(CONNECT_TIMEOUT)
+                    .cookieHandler(new CookieManager())
+                    .build());
+        }
+    }
+
+    // o aquecimento (jit, caches, pool de conexões) é executado e descartado antes da medição
+    public LoadResult run(LoadScenario scenario) throws InterruptedException {
+        execute(scenario, warmup);
+        return execute(scenario, duration);
+    }
+
+    private LoadResult execute(LoadScenario scenario, Duration duration) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        AtomicLong sequence = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        List<Future<Worker>> futures = new ArrayList<>();
+        for (HttpClient client : clients) {
+            futures.add(executor.submit(() -> new Worker(client).run(scenario, sequence, deadline)));
+        }
+
+        Histogram latencies = new Histogram(MAXIMUM_TRACKABLE_LATENCY, 3);
+        Map<Integer, Long> statuses = new TreeMap<>();
+        long errors = 0;
+        try {
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                latencies.add(worker.latencies);
+                worker.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+                errors += worker.errors;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        return LoadResult.builder()
+                .endpoint(scenario.getName())
+                .concurrency(concurrency)
+                .durationSeconds(elapsedSeconds)
+                .requests(latencies.getTotalCount())
+                .errors(errors)
+                .statuses(statuses)
+                .requestsPerSecond(latencies.getTotalCount() / elapsedSeconds)
+                .p50Ms(toMillis(latencies.getValueAtPercentile(50)))
+                .p99Ms(toMillis(latencies.getValueAtPercentile(99)))
+                .p999Ms(toMillis(latencies.getValueAtPercentile(99.9)))
+                .maxMs(toMillis(latencies.getMaxValue()))
+                .build();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // usuário virtual, os resultados são somados depois do fim do cenário
+    private static class Worker {
+        private final HttpClient client;
+        private final Histogram latencies = new Histogram(MAXIMUM_TRACKABLE_LATENCY, 3);
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+        private long errors;
+
+        Worker(HttpClient client) {
+            this.client = client;
+        }
+
+        Worker run(LoadScenario scenario, AtomicLong sequence, long deadline) throws InterruptedException {
+            while (System.nanoTime() < deadline) {
+                long requestStart = System.nanoTime();
+                int status;
+                try {
+                    HttpResponse<byte[]> response = client.send(
+                            scenario.getRequestFactory().apply(sequence.incrementAndGet()),
+                            HttpResponse.BodyHandlers.ofByteArray());
+                    status = response.statusCode();
+                } catch (IOException e) {
+                    // falha de conexão ou timeout, registrada como status 0
+                    status = 0;
+                }
+                latencies.recordValue(Math.min(System.nanoTime() - requestStart, MAXIMUM_TRACKABLE_LATENCY));
+                statuses.merge(status, 1L, Long::sum);
+                if (status < 200 || status >= 300) {
+                    errors++;
+                }
+            }
+            return this;
+        }
+    }
+
+}
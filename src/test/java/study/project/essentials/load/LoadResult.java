@@ -0,0 +1,28 @@
+package study.project.essentials.load;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+// resultado de um cenário, as latências estão em milissegundos
+@Getter
+@Builder
+public class LoadResult {
+    private final String endpoint;
+    private final int concurrency;
+    private final double durationSeconds;
+    private final long requests;
+    // respostas fora de 2xx e falhas de conexão/timeout
+    private final long errors;
+    private final Map<Integer, Long> statuses;
+    private final double requestsPerSecond;
+    private final double p50Ms;
+    private final double p99Ms;
+    private final double p999Ms;
+    private final double maxMs;
+
+    public double getErrorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+}
@@ -0,0 +1,15 @@
+package study.project.essentials.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.net.http.HttpRequest;
+import java.util.function.LongFunction;
+
+// endpoint exercitado pela carga, a requisição recebe o número sequencial da chamada
+@Getter
+@AllArgsConstructor
+public class LoadScenario {
+    private final String name;
+    private final LongFunction<HttpRequest> requestFactory;
+}
@@ -0,0 +1,94 @@
+package study.project.essentials.metrics;
+
+import io.micrometer.core.instrument.search.RequiredSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+class TimedDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedDataSource timedDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        timedDataSource = new TimedDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:timed-data-source;DB_CLOSE_DELAY=-1"), () -> meterRegistry);
+    }
+
+    @Test
+    @DisplayName("prepared and plain statements are timed by operation")
+    void statementsAreTimedByOperation() throws SQLException {
+        try (Connection connection = timedDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists anime (id bigint primary key, name varchar(100))");
+            statement.execute("delete from anime");
+            try (PreparedStatement insert = connection.prepareStatement("insert into anime (id, name) values (?, ?)")) {
+                insert.setLong(1, 1);
+                insert.setString(2, "Kingdom");
+                insert.executeUpdate();
+            }
+            statement.executeQuery("  SELECT name FROM anime").close();
+        }
+
+        Assertions.assertThat(count(Map.of("operation", "other", "outcome", "SUCCESS"))).isEqualTo(1);
+        Assertions.assertThat(count(Map.of("operation", "delete", "outcome", "SUCCESS"))).isEqualTo(1);
+        Assertions.assertThat(count(Map.of("operation", "insert", "outcome", "SUCCESS"))).isEqualTo(1);
+        Assertions.assertThat(count(Map.of("operation", "select", "outcome", "SUCCESS", "endpoint", "none"))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("failed statements are timed with the error outcome and rethrow the SQLException")
+    void failedStatementsAreTimedWithTheErrorOutcome() throws SQLException {
+        try (Connection connection = timedDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            Assertions.assertThatExceptionOfType(SQLException.class)
+                    .isThrownBy(() -> statement.executeQuery("select * from missing_table"));
+        }
+
+        Assertions.assertThat(meterRegistry.get(TimedDataSource.TIMER_NAME)
+                        .tag("operation", "select")
+                        .tag("outcome", "ERROR")
+                        .timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("proxied statements are equal only to themselves")
+    void proxiedStatementsAreEqualOnlyToThemselves() throws SQLException {
+        try (Connection connection = timedDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             Statement otherStatement = connection.createStatement()) {
+            Assertions.assertThat(statement).isEqualTo(statement).isNotEqualTo(otherStatement);
+            Assertions.assertThat(statement.hashCode()).isEqualTo(statement.hashCode());
+        }
+    }
+
+    @Test
+    @DisplayName("operation is extracted from the first keyword of the sql")
+    void operationIsExtractedFromTheFirstKeywordOfTheSql() {
+        Assertions.assertThat(TimedDataSource.operation("update anime set name = ?")).isEqualTo("update");
+        Assertions.assertThat(TimedDataSource.operation("call next value for anime_seq")).isEqualTo("call");
+        Assertions.assertThat(TimedDataSource.operation("alter table anime add column x int")).isEqualTo("other");
+        Assertions.assertThat(TimedDataSource.operation(null)).isEqualTo("other");
+    }
+
+    private long count(Map<String, String> tags) {
+        RequiredSearch search = meterRegistry.get(TimedDataSource.TIMER_NAME);
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            search = search.tag(tag.getKey(), tag.getValue());
+        }
+        return search.timer().count();
+    }
+
+}
@@ -1,23 +1,42 @@
 package study.project.essentials.repository;
 
 import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import study.project.essentials.domain.Anime;
+import study.project.essentials.responses.AnimeResponse;
 import study.project.essentials.util.AnimeCreator;
+import study.project.essentials.util.SearchNameUtil;
 
 import javax.validation.ConstraintViolationException;
 import java.util.List;
+import java.util.Map;
 
 @DataJpaTest
+// o AnimeSearchTokenRepository usa o JdbcTemplate, fora dos repositórios do spring data
+@Import(AnimeSearchTokenRepository.class)
 @DisplayName("Tests for Anime Repository")
 class AnimeRepositoryTest {
 
     @Autowired
     private AnimeRepository animeRepository;
 
+    @Autowired
+    private AnimeSearchTokenRepository animeSearchTokenRepository;
+
+    // salvando como os services: o anime e as palavras do nome
+    private Anime saveWithTokens(String name) {
+        Anime anime = this.animeRepository.save(Anime.builder().name(name).build());
+        this.animeSearchTokenRepository.insertAll(Map.of(anime.getId(), anime.getName()));
+        return anime;
+    }
+
     @Test
     @DisplayName("Save creates anime when Successful")
     void savePersistAnimeWhenSuccessful() {
@@ -55,21 +74,66 @@ class AnimeRepositoryTest {
         // obtendo o nome do anime salvo no banco de dados
         String name = animeSaved.getName();
         // recebendo uma lista de animes do banco de dados
-        List<Anime> animes = this.animeRepository.findByName(name);
+        Slice<AnimeResponse> animes = this.animeRepository.findByName(name, PageRequest.of(0, 10));
 
         /* verifica se a lista de animes não é vazia e
            se o banco de dados contem um anime salvo */
-        Assertions.assertThat(animes)
+        Assertions.assertThat(animes.hasNext()).isFalse();
+        Assertions.assertThat(animes.getContent())
                 .isNotEmpty()
-                .contains(animeSaved);
+                .extracting(AnimeResponse::getId, AnimeResponse::getName)
+                .contains(Tuple.tuple(animeSaved.getId(), animeSaved.getName()));
     }
 
     @Test
     @DisplayName("Find By Name returns empty list when no anime is found")
     void findByNameReturnsEmptyListWhenAnimeIsNotFound() {
-        List<Anime> animes = this.animeRepository.findByName("invalid");
+        Slice<AnimeResponse> animes = this.animeRepository.findByName("invalid", PageRequest.of(0, 10));
         // verifica se o nome do anime é invalido/vazio
-        Assertions.assertThat(animes).isEmpty();
+        Assertions.assertThat(animes.getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Find By Search Name Starting With returns animes ignoring case and accents")
+    void findBySearchNameStartingWithReturnsAnimesIgnoringCaseAndAccents() {
+        Anime animeSaved = this.animeRepository.save(Anime.builder().name("Shingeki no Kyojin").build());
+        this.animeRepository.save(Anime.builder().name("Overlord").build());
+
+        // o search_name é calculado pela entidade antes do insert
+        Slice<Anime> animes = this.animeRepository.findBySearchNameStartingWith(SearchNameUtil.normalize("SHÍNGEKI"),
+                PageRequest.of(0, 10));
+
+        Assertions.assertThat(animes.getContent()).containsExactly(animeSaved);
+    }
+
+    @Test
+    @DisplayName("Search By Tokens returns animes with more matched words first")
+    void searchByTokensReturnsAnimesWithMoreMatchedWordsFirst() {
+        Anime oneWord = saveWithTokens("Hajime no Ippo: The Fighting!");
+        Anime twoWords = saveWithTokens("Ippo: New Challenger");
+        saveWithTokens("Overlord");
+
+        Slice<Anime> animes = this.animeRepository.searchByTokens(List.of("ippo", "challenger"), PageRequest.of(0, 10));
+
+        Assertions.assertThat(animes.getContent()).containsExactly(twoWords, oneWord);
+        Assertions.assertThat(animes.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Search By Tokens matches the beginning of any word and reports the next slice without counting")
+    void searchByTokensMatchesTheBeginningOfAnyWordAndReportsTheNextSlice() {
+        Anime shortName = saveWithTokens("Kimi no Na wa");
+        Anime longName = saveWithTokens("Nanatsu no Taizai");
+        saveWithTokens("Hunter x Hunter");
+
+        Slice<Anime> firstSlice = this.animeRepository.searchByTokens(List.of("na"), PageRequest.of(0, 1));
+        Slice<Anime> secondSlice = this.animeRepository.searchByTokens(List.of("na"), PageRequest.of(1, 1));
+
+        // "na" e "nanatsu" começam com o token, "hunter" não
+        Assertions.assertThat(firstSlice.getContent()).containsExactly(shortName);
+        Assertions.assertThat(firstSlice.hasNext()).isTrue();
+        Assertions.assertThat(secondSlice.getContent()).containsExactly(longName);
+        Assertions.assertThat(secondSlice.hasNext()).isFalse();
     }
 
     @Test
@@ -78,8 +142,9 @@ class AnimeRepositoryTest {
         // instanciando o objeto anime
         Anime anime = new Anime();
 
-        // verifica se acontece uma exception quando o nome é vazio/invalido
-        Assertions.assertThatThrownBy(() -> this.animeRepository.save(anime))
+        /* verifica se acontece uma exception quando o nome é vazio/invalido,
+           com o id gerado pela sequence o insert (e a validação) acontece no flush */
+        Assertions.assertThatThrownBy(() -> this.animeRepository.saveAndFlush(anime))
                   .isInstanceOf(ConstraintViolationException.class);
     }
 
@@ -0,0 +1,96 @@
+package study.project.essentials.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+
+class CredentialCachingAuthenticationManagerTest {
+
+    private AuthenticationManager delegateMock;
+
+    private VerifiedCredentialCache verifiedCredentialCache;
+
+    private CredentialCachingAuthenticationManager authenticationManager;
+
+    @BeforeEach
+    void setUp() {
+        CredentialCacheProperties properties = new CredentialCacheProperties();
+        properties.setEnabled(true);
+        verifiedCredentialCache = new VerifiedCredentialCache(properties, new SimpleMeterRegistry());
+
+        // quando a senha for "project" o delegate autentica o usuário, caso contrario explode uma exception
+        delegateMock = Mockito.mock(AuthenticationManager.class);
+        BDDMockito.when(delegateMock.authenticate(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    Authentication authentication = invocation.getArgument(0);
+                    if (!"project".equals(authentication.getCredentials())) {
+                        throw new BadCredentialsException("Bad credentials");
+                    }
+                    User user = new User(authentication.getName(), "", AuthorityUtils.createAuthorityList("ROLE_USER"));
+                    return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                });
+
+        authenticationManager = new CredentialCachingAuthenticationManager(delegateMock, verifiedCredentialCache);
+    }
+
+    @Test
+    @DisplayName("authenticate reuses the verified credential when called twice with the same password")
+    void authenticateReusesVerifiedCredentialWhenCalledTwice() {
+        Authentication first = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("Lon", "project"));
+        Authentication second = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("Lon", "project"));
+
+        Assertions.assertThat(second.isAuthenticated()).isTrue();
+        Assertions.assertThat(second.getName()).isEqualTo(first.getName());
+        Assertions.assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+
+        // o password encoder foi executado somente uma vez
+        Mockito.verify(delegateMock, Mockito.times(1)).authenticate(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("authenticate throws BadCredentialsException when password differs from the cached one")
+    void authenticateThrowsBadCredentialsExceptionWhenPasswordDiffers() {
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("Lon", "project"));
+
+        Assertions.assertThatExceptionOfType(BadCredentialsException.class)
+                .isThrownBy(() -> authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("Lon", "wrong")));
+    }
+
+    @Test
+    @DisplayName("evict forces the credential to be verified again")
+    void evictForcesTheCredentialToBeVerifiedAgain() {
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("Lon", "project"));
+        verifiedCredentialCache.evict("Lon");
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("Lon", "project"));
+
+        Mockito.verify(delegateMock, Mockito.times(2)).authenticate(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("the verified credential cache registers its meters only when it is enabled")
+    void verifiedCredentialCacheRegistersItsMetersOnlyWhenItIsEnabled() {
+        SimpleMeterRegistry disabledRegistry = new SimpleMeterRegistry();
+        new VerifiedCredentialCache(new CredentialCacheProperties(), disabledRegistry);
+
+        SimpleMeterRegistry enabledRegistry = new SimpleMeterRegistry();
+        CredentialCacheProperties properties = new CredentialCacheProperties();
+        properties.setEnabled(true);
+        new VerifiedCredentialCache(properties, enabledRegistry);
+
+        Assertions.assertThat(disabledRegistry.getMeters()).isEmpty();
+        Assertions.assertThat(enabledRegistry.find("essentials.auth.password.verification").timer()).isNotNull();
+        Assertions.assertThat(enabledRegistry.find("cache.gets").tag("cache", "verifiedCredentials").meters()).isNotEmpty();
+    }
+
+}
@@ -0,0 +1,50 @@
+package study.project.essentials.security;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import study.project.essentials.domain.ProjectUser;
+
+import java.util.Collection;
+import java.util.Set;
+
+class GrantedAuthoritiesTest {
+
+    @Test
+    @DisplayName("parse returns trimmed authorities when the text has spaces after the comma")
+    void parseReturnsTrimmedAuthoritiesWhenTextHasSpaces() {
+        Set<GrantedAuthority> authorities = GrantedAuthorities.parse("ROLE_ADMIN, ROLE_USER");
+
+        Assertions.assertThat(AuthorityUtils.authorityListToSet(authorities))
+                .containsExactly("ROLE_ADMIN", "ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("parse returns the same immutable set and authority instances when called twice")
+    void parseReturnsSameImmutableSetWhenCalledTwice() {
+        Set<GrantedAuthority> first = GrantedAuthorities.parse("ROLE_ADMIN,ROLE_USER");
+        Set<GrantedAuthority> second = GrantedAuthorities.parse(new String("ROLE_ADMIN,ROLE_USER"));
+
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(GrantedAuthorities.parse("ROLE_USER").iterator().next())
+                .isSameAs(GrantedAuthorities.of("ROLE_USER"));
+        Assertions.assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> first.add(GrantedAuthorities.of("ROLE_ROOT")));
+    }
+
+    @Test
+    @DisplayName("getAuthorities returns the parsed authorities when the authorities text changes")
+    void getAuthoritiesReturnsParsedAuthoritiesWhenTextChanges() {
+        ProjectUser projectUser = ProjectUser.builder().authorities("ROLE_USER").build();
+        Collection<? extends GrantedAuthority> before = projectUser.getAuthorities();
+
+        projectUser.setAuthorities("ROLE_ADMIN,ROLE_USER");
+
+        Assertions.assertThat(AuthorityUtils.authorityListToSet(before)).containsExactly("ROLE_USER");
+        Assertions.assertThat(AuthorityUtils.authorityListToSet(projectUser.getAuthorities()))
+                .containsExactly("ROLE_ADMIN", "ROLE_USER");
+    }
+
+}
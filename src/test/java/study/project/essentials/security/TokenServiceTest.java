@@ -0,0 +1,107 @@
+package study.project.essentials.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import study.project.essentials.responses.TokenResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+class TokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2021-07-01T10:00:00Z");
+
+    private TokenProperties tokenProperties;
+
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        tokenProperties = new TokenProperties();
+        tokenProperties.setKeyId("current");
+        tokenProperties.getKeys().put("current", "a-local-signing-key-with-at-least-32-bytes");
+        tokenService = new TokenService(tokenProperties, new ObjectMapper(), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static Authentication createAuthentication() {
+        return new UsernamePasswordAuthenticationToken("Noah", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"));
+    }
+
+    @Test
+    @DisplayName("parse returns the user and authorities of an issued token")
+    void parseReturnsUserAndAuthoritiesOfIssuedToken() {
+        TokenResponse tokenResponse = tokenService.issue(createAuthentication());
+
+        Authentication authentication = tokenService.parse(tokenResponse.getAccessToken());
+
+        Assertions.assertThat(tokenResponse.getTokenType()).isEqualTo("Bearer");
+        Assertions.assertThat(tokenResponse.getExpiresIn()).isEqualTo(tokenProperties.getTtl().getSeconds());
+        Assertions.assertThat(authentication.isAuthenticated()).isTrue();
+        Assertions.assertThat(((UserDetails) authentication.getPrincipal()).getUsername()).isEqualTo("Noah");
+        Assertions.assertThat(AuthorityUtils.authorityListToSet(authentication.getAuthorities()))
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("parse throws BadCredentialsException when the token was tampered")
+    void parseThrowsBadCredentialsExceptionWhenTokenWasTampered() {
+        String token = tokenService.issue(createAuthentication()).getAccessToken();
+        String[] parts = token.split("\\.");
+
+        // trocando o payload por outro usuário mantendo a assinatura original
+        String forgedPayload = tokenService.issue(new UsernamePasswordAuthenticationToken("Tyler", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"))).getAccessToken().split("\\.")[1];
+
+        Assertions.assertThatExceptionOfType(BadCredentialsException.class)
+                .isThrownBy(() -> tokenService.parse(parts[0] + "." + forgedPayload + "." + parts[2]));
+    }
+
+    @Test
+    @DisplayName("parse throws CredentialsExpiredException when the token is expired")
+    void parseThrowsCredentialsExpiredExceptionWhenTokenIsExpired() {
+        String token = tokenService.issue(createAuthentication()).getAccessToken();
+
+        TokenService later = new TokenService(tokenProperties, new ObjectMapper(),
+                Clock.fixed(NOW.plus(tokenProperties.getTtl()).plus(Duration.ofSeconds(1)), ZoneOffset.UTC));
+
+        Assertions.assertThatExceptionOfType(CredentialsExpiredException.class)
+                .isThrownBy(() -> later.parse(token));
+    }
+
+    @Test
+    @DisplayName("parse accepts tokens signed by a previous key after the active key changes")
+    void parseAcceptsTokensSignedByPreviousKey() {
+        String token = tokenService.issue(createAuthentication()).getAccessToken();
+
+        tokenProperties.getKeys().put("next", "another-local-signing-key-with-32-bytes-or-more");
+        tokenProperties.setKeyId("next");
+        TokenService rotated = new TokenService(tokenProperties, new ObjectMapper(), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        Assertions.assertThat(rotated.parse(token).getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .contains("ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("TokenService throws IllegalStateException when the signing key is too short")
+    void tokenServiceThrowsIllegalStateExceptionWhenSigningKeyIsTooShort() {
+        tokenProperties.getKeys().put("current", "short");
+
+        Assertions.assertThatIllegalStateException()
+                .isThrownBy(() -> new TokenService(tokenProperties, new ObjectMapper()));
+    }
+
+}
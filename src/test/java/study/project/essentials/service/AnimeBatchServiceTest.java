@@ -0,0 +1,199 @@
+package study.project.essentials.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import study.project.essentials.domain.Anime;
+import study.project.essentials.event.AnimeChangedEvent;
+import study.project.essentials.exception.BadRequestException;
+import study.project.essentials.exception.BatchItemError;
+import study.project.essentials.exception.BatchValidationException;
+import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.repository.AnimeSearchTokenRepository;
+import study.project.essentials.requests.AnimePostRequestBody;
+import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.responses.AnimeBatchUpdateResponse;
+import study.project.essentials.util.AnimeCreator;
+import study.project.essentials.util.AnimePostRequestBodyCreator;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import javax.validation.Validation;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+class AnimeBatchServiceTest {
+
+    private AnimeRepository animeRepositoryMock;
+
+    private JdbcTemplate jdbcTemplateMock;
+
+    private Cache entityCacheMock;
+
+    private ApplicationEventPublisher applicationEventPublisherMock;
+
+    private AnimeSearchTokenRepository animeSearchTokenRepositoryMock;
+
+    private AnimeBatchService animeBatchService;
+
+    @BeforeEach
+    void setUp() {
+        animeRepositoryMock = Mockito.mock(AnimeRepository.class);
+        BDDMockito.when(animeRepositoryMock.saveAll(ArgumentMatchers.anyList()))
+                .thenReturn(List.of(AnimeCreator.createValidAnime(), AnimeCreator.createValidUpdatedAnime()));
+
+        jdbcTemplateMock = Mockito.mock(JdbcTemplate.class);
+        entityCacheMock = Mockito.mock(Cache.class);
+        EntityManagerFactory entityManagerFactoryMock = Mockito.mock(EntityManagerFactory.class);
+        BDDMockito.when(entityManagerFactoryMock.getCache()).thenReturn(entityCacheMock);
+
+        applicationEventPublisherMock = Mockito.mock(ApplicationEventPublisher.class);
+
+        // utilizando o validator real para validar as anotações dos request bodies
+        animeSearchTokenRepositoryMock = Mockito.mock(AnimeSearchTokenRepository.class);
+
+        animeBatchService = new AnimeBatchService(animeRepositoryMock, animeSearchTokenRepositoryMock,
+                Validation.buildDefaultValidatorFactory().getValidator(), jdbcTemplateMock, entityManagerFactoryMock,
+                applicationEventPublisherMock);
+    }
+
+    @Test
+    @DisplayName("saveAll saves every anime in a single call when all of them are valid")
+    void saveAllSavesEveryAnimeWhenAllOfThemAreValid() {
+        List<Anime> animes = animeBatchService.saveAll(List.of(
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                AnimePostRequestBodyCreator.createAnimePostRequestBody()));
+
+        Assertions.assertThat(animes).hasSize(2);
+        Mockito.verify(animeRepositoryMock, Mockito.times(1)).saveAll(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    @DisplayName("saveAll throws BatchValidationException with the index of every invalid anime")
+    void saveAllThrowsBatchValidationExceptionWithTheIndexOfEveryInvalidAnime() {
+        List<AnimePostRequestBody> animePostRequestBodies = List.of(
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                new AnimePostRequestBody(""),
+                new AnimePostRequestBody(null));
+
+        Assertions.assertThatExceptionOfType(BatchValidationException.class)
+                .isThrownBy(() -> animeBatchService.saveAll(animePostRequestBodies))
+                .satisfies(exception -> Assertions.assertThat(exception.getErrors())
+                        .extracting(BatchItemError::getIndex, BatchItemError::getFields)
+                        .containsExactly(Assertions.tuple(1, "name"), Assertions.tuple(2, "name")));
+
+        // nenhum anime é salvo quando um deles é inválido
+        Mockito.verify(animeRepositoryMock, Mockito.never()).saveAll(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    @DisplayName("saveAll throws BadRequestException when the batch is empty or too large")
+    void saveAllThrowsBadRequestExceptionWhenBatchIsEmptyOrTooLarge() {
+        List<AnimePostRequestBody> tooLarge = Collections.nCopies(AnimeBatchService.MAXIMUM_BATCH_SIZE + 1,
+                AnimePostRequestBodyCreator.createAnimePostRequestBody());
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeBatchService.saveAll(Collections.emptyList()));
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeBatchService.saveAll(tooLarge));
+    }
+
+    @Test
+    @DisplayName("replaceAll returns the missing ids when an update does not change any row")
+    @SuppressWarnings("unchecked")
+    void replaceAllReturnsTheMissingIdsWhenAnUpdateDoesNotChangeAnyRow() {
+        // o segundo update não encontra a linha
+        BDDMockito.when(jdbcTemplateMock.batchUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.anyList(),
+                        ArgumentMatchers.eq(AnimeBatchService.UPDATE_BATCH_SIZE),
+                        ArgumentMatchers.any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0}});
+
+        AnimeBatchUpdateResponse response = animeBatchService.replaceAll(List.of(
+                AnimePutRequestBody.builder().id(1L).name("Overlord").build(),
+                AnimePutRequestBody.builder().id(99L).name("Berserk").build()));
+
+        Assertions.assertThat(response.getUpdated()).isEqualTo(1);
+        Assertions.assertThat(response.getMissingIds()).containsExactly(99L);
+        // somente o anime alterado é removido do cache de segundo nível
+        Mockito.verify(entityCacheMock).evict(Anime.class, 1L);
+        Mockito.verify(entityCacheMock, Mockito.never()).evict(Anime.class, 99L);
+        // nenhum anime é consultado antes do update
+        Mockito.verifyNoInteractions(animeRepositoryMock);
+    }
+
+    @Test
+    @DisplayName("replaceAll checks the database and notifies only the confirmed updates when the driver returns SUCCESS_NO_INFO")
+    @SuppressWarnings("unchecked")
+    void replaceAllChecksTheDatabaseWhenTheDriverReturnsSuccessNoInfo() {
+        // o driver não informa as linhas alteradas em nenhum dos updates
+        BDDMockito.when(jdbcTemplateMock.batchUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.anyList(),
+                        ArgumentMatchers.eq(AnimeBatchService.UPDATE_BATCH_SIZE),
+                        ArgumentMatchers.any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO}});
+        // o anime 1 foi alterado, o anime 2 já estava em outra versão e o anime 99 não existe
+        BDDMockito.when(jdbcTemplateMock.queryForList(ArgumentMatchers.startsWith("select id, name, version"),
+                        ArgumentMatchers.eq(1L), ArgumentMatchers.eq(2L), ArgumentMatchers.eq(99L)))
+                .thenReturn(List.of(
+                        Map.<String, Object>of("id", 1L, "name", "Overlord", "version", 4L),
+                        Map.<String, Object>of("id", 2L, "name", "Kingdom", "version", 7L)));
+        BDDMockito.when(jdbcTemplateMock.queryForList(ArgumentMatchers.startsWith("select id from anime"),
+                        ArgumentMatchers.eq(Long.class), ArgumentMatchers.eq(2L), ArgumentMatchers.eq(99L)))
+                .thenReturn(List.of(2L));
+
+        AnimeBatchUpdateResponse response = animeBatchService.replaceAll(List.of(
+                AnimePutRequestBody.builder().id(1L).name("Overlord").version(3L).build(),
+                AnimePutRequestBody.builder().id(2L).name("Berserk").version(3L).build(),
+                AnimePutRequestBody.builder().id(99L).name("Naruto").build()));
+
+        Assertions.assertThat(response.getUpdated()).isEqualTo(1);
+        Assertions.assertThat(response.getConflictIds()).containsExactly(2L);
+        Assertions.assertThat(response.getMissingIds()).containsExactly(99L);
+        Mockito.verify(applicationEventPublisherMock).publishEvent(new AnimeChangedEvent(1L, "Overlord"));
+        Mockito.verifyNoMoreInteractions(applicationEventPublisherMock);
+        Mockito.verify(entityCacheMock).evict(Anime.class, 1L);
+        Mockito.verify(entityCacheMock, Mockito.never()).evict(Anime.class, 2L);
+        Mockito.verify(animeSearchTokenRepositoryMock).replaceAll(Map.of(1L, "Overlord"));
+    }
+
+    @Test
+    @DisplayName("replaceAll throws BatchValidationException with the index of every repeated id")
+    void replaceAllThrowsBatchValidationExceptionWhenAnIdIsRepeated() {
+        List<AnimePutRequestBody> animePutRequestBodies = List.of(
+                AnimePutRequestBody.builder().id(1L).name("Overlord").build(),
+                AnimePutRequestBody.builder().id(2L).name("Berserk").build(),
+                AnimePutRequestBody.builder().id(1L).name("Kingdom").build());
+
+        Assertions.assertThatExceptionOfType(BatchValidationException.class)
+                .isThrownBy(() -> animeBatchService.replaceAll(animePutRequestBodies))
+                .satisfies(exception -> Assertions.assertThat(exception.getErrors())
+                        .extracting(BatchItemError::getIndex, BatchItemError::getFields)
+                        .containsExactly(Assertions.tuple(2, "id")));
+
+        // nenhum update é executado e nenhum evento é publicado
+        Mockito.verifyNoInteractions(jdbcTemplateMock, animeSearchTokenRepositoryMock, applicationEventPublisherMock);
+    }
+
+    @Test
+    @DisplayName("replaceAll throws BatchValidationException when the id is null")
+    void replaceAllThrowsBatchValidationExceptionWhenIdIsNull() {
+        List<AnimePutRequestBody> animePutRequestBodies = List.of(AnimePutRequestBody.builder().name("Overlord").build());
+
+        Assertions.assertThatExceptionOfType(BatchValidationException.class)
+                .isThrownBy(() -> animeBatchService.replaceAll(animePutRequestBodies))
+                .satisfies(exception -> Assertions.assertThat(exception.getErrors())
+                        .extracting(BatchItemError::getFields)
+                        .containsExactly("id"));
+
+        Mockito.verifyNoInteractions(jdbcTemplateMock);
+    }
+
+}
@@ -0,0 +1,59 @@
+package study.project.essentials.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.project.essentials.event.AnimeChangedEvent;
+import study.project.essentials.responses.AnimeSuggestion;
+
+class AnimeNameIndexTest {
+
+    private AnimeNameIndex animeNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        animeNameIndex = new AnimeNameIndex(Mockito.mock(JdbcTemplate.class));
+        animeNameIndex.put(new AnimeChangedEvent(1L, "Hajime no Ippo"));
+        animeNameIndex.put(new AnimeChangedEvent(2L, "Ippo: New Challenger"));
+        animeNameIndex.put(new AnimeChangedEvent(3L, "Shingeki no Kyojin"));
+    }
+
+    @Test
+    @DisplayName("suggest returns names starting with the text before names containing it")
+    void suggestReturnsNamesStartingWithTheTextFirst() {
+        Assertions.assertThat(animeNameIndex.suggest("IPPO", 10))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("suggest finds short texts by the beginning of the words ignoring accents")
+    void suggestFindsShortTextsByTheBeginningOfTheWords() {
+        Assertions.assertThat(animeNameIndex.suggest("ký", 10))
+                .extracting(AnimeSuggestion::getName)
+                .containsExactly("Shingeki no Kyojin");
+    }
+
+    @Test
+    @DisplayName("suggest returns only the best suggestions up to the limit")
+    void suggestReturnsOnlyTheBestSuggestionsUpToTheLimit() {
+        Assertions.assertThat(animeNameIndex.suggest("no", 1))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("put replaces the previous name of the anime")
+    void putReplacesThePreviousNameOfTheAnime() {
+        animeNameIndex.put(new AnimeChangedEvent(3L, "Overlord"));
+
+        Assertions.assertThat(animeNameIndex.suggest("kyo", 10)).isEmpty();
+        Assertions.assertThat(animeNameIndex.suggest("over", 10))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(3L);
+    }
+
+}
@@ -0,0 +1,68 @@
+package study.project.essentials.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.project.essentials.event.AnimeChangedEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+class AnimeResponseCacheTest {
+    private static final byte[] BODY = "[{\"id\":1,\"name\":\"Hajime no Ippo\"}]".getBytes(StandardCharsets.UTF_8);
+
+    private final AnimeResponseCache animeResponseCache = new AnimeResponseCache(1024 * 1024, Duration.ofMinutes(1),
+            Duration.ZERO);
+
+    @Test
+    @DisplayName("put stores the body compressed with gzip")
+    void putStoresTheBodyCompressedWithGzip() throws IOException {
+        animeResponseCache.put("/animes/all", animeResponseCache.currentGeneration(), "application/json", null, BODY);
+
+        AnimeResponseCache.CachedResponse cachedResponse = animeResponseCache.get("/animes/all").orElseThrow();
+        Assertions.assertThat(cachedResponse.getLength()).isEqualTo(BODY.length);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(cachedResponse.getGzippedBody()))) {
+            Assertions.assertThat(gzip.readAllBytes()).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    @DisplayName("onAnimeChanged removes every response")
+    void onAnimeChangedRemovesEveryResponse() {
+        animeResponseCache.put("/animes/all", animeResponseCache.currentGeneration(), "application/json", null, BODY);
+
+        animeResponseCache.onAnimeChanged(new AnimeChangedEvent(1, "Hajime no Ippo"));
+
+        Assertions.assertThat(animeResponseCache.get("/animes/all")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("put discards the response built before an anime was changed")
+    void putDiscardsTheResponseBuiltBeforeAnAnimeWasChanged() {
+        long generation = animeResponseCache.currentGeneration();
+
+        // a consulta leu os animes antes da alteração, a resposta está desatualizada
+        animeResponseCache.onAnimeChanged(new AnimeChangedEvent(1, "Hajime no Ippo"));
+        animeResponseCache.put("/animes/all", generation, "application/json", null, BODY);
+
+        Assertions.assertThat(animeResponseCache.get("/animes/all")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("put discards the response while the last change may not have reached the replicas")
+    void putDiscardsTheResponseWhileTheLastChangeMayNotHaveReachedTheReplicas() {
+        AnimeResponseCache replicaResponseCache = new AnimeResponseCache(1024 * 1024, Duration.ofMinutes(1),
+                Duration.ofMinutes(1));
+        replicaResponseCache.put("/animes", replicaResponseCache.currentGeneration(), "application/json", null, BODY);
+        Assertions.assertThat(replicaResponseCache.get("/animes")).isPresent();
+
+        replicaResponseCache.onAnimeChanged(new AnimeChangedEvent(1, "Hajime no Ippo"));
+        replicaResponseCache.put("/animes", replicaResponseCache.currentGeneration(), "application/json", null, BODY);
+
+        Assertions.assertThat(replicaResponseCache.get("/animes")).isEmpty();
+    }
+
+}
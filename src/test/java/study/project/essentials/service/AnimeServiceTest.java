@@ -9,24 +9,44 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.project.essentials.domain.Anime;
+import study.project.essentials.domain.AnimeVersion;
+import study.project.essentials.event.AnimeChangedEvent;
 import study.project.essentials.exception.BadRequestException;
+import study.project.essentials.exception.ConflictException;
 import study.project.essentials.repository.AnimeRepository;
+import study.project.essentials.repository.AnimeSearchTokenRepository;
 import study.project.essentials.requests.AnimePostRequestBody;
 import study.project.essentials.requests.AnimePutRequestBody;
+import study.project.essentials.requests.AnimeSearchMode;
+import study.project.essentials.responses.AnimeResponse;
 import study.project.essentials.util.AnimeCreator;
 import study.project.essentials.util.AnimePostRequestBodyCreator;
 import study.project.essentials.util.AnimePutRequestBodyCreator;
+import study.project.essentials.util.AnimeResponseCreator;
+import study.project.essentials.util.CursorUtil;
+import study.project.essentials.wrapper.KeysetResponse;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @ExtendWith(SpringExtension.class)
 class AnimeServiceTest {
@@ -37,6 +57,18 @@ class AnimeServiceTest {
     @Mock
     private AnimeRepository animeRepositoryMock;
 
+    @Mock
+    private AnimeSearchTokenRepository animeSearchTokenRepositoryMock;
+
+    @Mock
+    private EntityManager entityManagerMock;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisherMock;
+
+    @Mock
+    private TransactionTemplate transactionTemplateMock;
+
     @BeforeEach
     void setUp() {
         // quando retorna uma lista o anime já esta salvo no bando de dados
@@ -47,20 +79,28 @@ class AnimeServiceTest {
                 .thenReturn(animePage);
 
         // quando executar dentro do controller uma chamada ao listAll sem paginação retornando uma lista de anime com id valido
-        BDDMockito.when(animeRepositoryMock.findAll())
-                .thenReturn(List.of(AnimeCreator.createValidAnime()));
+        BDDMockito.when(animeRepositoryMock.findAllResponsesBy())
+                .thenReturn(List.of(AnimeResponseCreator.createValidAnimeResponse()));
 
         // quando executar dentro do controller uma chamada ao findById procurando um anime com id valido
         BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyLong()))
                 .thenReturn(Optional.of(AnimeCreator.createValidAnime()));
 
         // quando executar dentro do controller uma chamada ao findByName procurando o nome do anime e retornando uma lista de anime com id valido
-        BDDMockito.when(animeRepositoryMock.findByName(ArgumentMatchers.anyString()))
-                .thenReturn(List.of(AnimeCreator.createValidAnime()));
+        BDDMockito.when(animeRepositoryMock.findByName(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(List.of(AnimeResponseCreator.createValidAnimeResponse())));
 
         // quando executar dentro do controller uma chamada ao save passando qualquer tipo de objeto retorna uma anime valido
         BDDMockito.when(animeRepositoryMock.save(ArgumentMatchers.any(Anime.class)))
                 .thenReturn(AnimeCreator.createValidAnime());
+
+        // o saveAndFlush retorna o próprio anime alterado
+        BDDMockito.when(animeRepositoryMock.saveAndFlush(ArgumentMatchers.any(Anime.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // executando o callback da transação diretamente
+        BDDMockito.when(transactionTemplateMock.execute(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -83,6 +123,56 @@ class AnimeServiceTest {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAllSlice returns list of anime inside slice object when successful")
+    void listAllSliceReturnsListOfAnimeInsideSliceObjectWhenSuccessful() {
+        // o slice não executa o count, somente informa se existe a próxima página
+        BDDMockito.when(animeRepositoryMock.findAllBy(ArgumentMatchers.any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1), true));
+
+        Slice<Anime> animeSlice = animeService.listAllSlice(PageRequest.of(0, 1));
+
+        Assertions.assertThat(animeSlice.getContent()).hasSize(1);
+        Assertions.assertThat(animeSlice.hasNext()).isTrue();
+        Mockito.verify(animeRepositoryMock, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("listAfter returns the next cursor when there are more animes")
+    void listAfterReturnsNextCursorWhenThereAreMoreAnimes() {
+        // o repositorio retorna um anime a mais do que o tamanho pedido
+        BDDMockito.when(animeRepositoryMock.findByIdGreaterThanOrderByIdAsc(ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(List.of(AnimeCreator.createValidAnime(), AnimeCreator.createValidUpdatedAnime()));
+
+        KeysetResponse<Anime> keysetResponse = animeService.listAfter("", 1);
+
+        Assertions.assertThat(keysetResponse.getContent()).hasSize(1);
+        Assertions.assertThat(keysetResponse.isHasNext()).isTrue();
+        // o cursor aponta para o último anime retornado
+        Assertions.assertThat(CursorUtil.decode(keysetResponse.getNextCursor()))
+                .isEqualTo(AnimeCreator.createValidAnime().getId());
+    }
+
+    @Test
+    @DisplayName("listAfter returns no cursor when it is the last page")
+    void listAfterReturnsNoCursorWhenItIsTheLastPage() {
+        BDDMockito.when(animeRepositoryMock.findByIdGreaterThanOrderByIdAsc(ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(List.of(AnimeCreator.createValidAnime()));
+
+        KeysetResponse<Anime> keysetResponse = animeService.listAfter(CursorUtil.encode(0), 5);
+
+        Assertions.assertThat(keysetResponse.getContent()).hasSize(1);
+        Assertions.assertThat(keysetResponse.isHasNext()).isFalse();
+        Assertions.assertThat(keysetResponse.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("listAfter throws BadRequestException when cursor is invalid")
+    void listAfterThrowsBadRequestExceptionWhenCursorIsInvalid() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.listAfter("not a cursor", 5));
+    }
+
     @Test
     @DisplayName("listAll returns list of anime when successful")
     void listAllReturnsListOfAnimeWhenSuccessful() {
@@ -90,7 +180,7 @@ class AnimeServiceTest {
         String expectedName = AnimeCreator.createValidAnime().getName();
 
         // recebendo uma lista de animes
-        List<Anime> animes = animeService.listAllNonPageable();
+        List<AnimeResponse> animes = animeService.listAllNonPageable();
 
         // verificando se os animes não são nulos, vazios ou se possui um
         Assertions.assertThat(animes)
@@ -102,6 +192,67 @@ class AnimeServiceTest {
         Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAllByVersions returns the projections in the order of the versions page")
+    void listAllByVersionsReturnsTheProjectionsInTheOrderOfTheVersionsPage() {
+        AnimeResponse first = AnimeResponse.builder().id(2L).name("Overlord").build();
+        AnimeResponse second = AnimeResponse.builder().id(1L).name("Hajime no Ippo").build();
+        // o banco devolve os animes do "in" sem a ordem da página
+        BDDMockito.when(animeRepositoryMock.findResponsesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(second, first));
+
+        Page<AnimeResponse> animePage = animeService.listAllByVersions(new PageImpl<>(List.of(
+                new AnimeVersion(2L, 0, null), new AnimeVersion(1L, 0, null)), PageRequest.of(0, 2), 10));
+
+        Assertions.assertThat(animePage.getContent()).containsExactly(first, second);
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("streamAll passes every anime to the consumer and detaches it")
+    void streamAllPassesEveryAnimeToTheConsumerAndDetachesIt() {
+        Anime anime = AnimeCreator.createValidAnime();
+        BDDMockito.when(animeRepositoryMock.streamAllByOrderByIdAsc())
+                .thenReturn(Stream.of(anime));
+
+        List<Anime> animes = new ArrayList<>();
+        animeService.streamAll(animes::add);
+
+        Assertions.assertThat(animes).containsExactly(anime);
+        // o anime não fica preso no contexto de persistência
+        Mockito.verify(entityManagerMock).detach(anime);
+    }
+
+    @Test
+    @DisplayName("search normalizes the name and uses the prefix query in PREFIX mode")
+    void searchNormalizesTheNameAndUsesThePrefixQueryInPrefixMode() {
+        BDDMockito.when(animeRepositoryMock.findBySearchNameStartingWith(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime())));
+
+        Slice<Anime> animePage = animeService.search("  HAJIME ", AnimeSearchMode.PREFIX, PageRequest.of(0, 1));
+
+        Assertions.assertThat(animePage.getContent()).hasSize(1);
+        Mockito.verify(animeRepositoryMock).findBySearchNameStartingWith("hajime", PageRequest.of(0, 1));
+    }
+
+    @Test
+    @DisplayName("search splits the name in words in FULL_TEXT mode")
+    void searchSplitsTheNameInWordsInFullTextMode() {
+        BDDMockito.when(animeRepositoryMock.searchByTokens(ArgumentMatchers.anyList(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime())));
+
+        animeService.search("Ippo, Hajime", AnimeSearchMode.FULL_TEXT, PageRequest.of(0, 1));
+
+        Mockito.verify(animeRepositoryMock).searchByTokens(List.of("ippo", "hajime"), PageRequest.of(0, 1));
+    }
+
+    @Test
+    @DisplayName("search throws BadRequestException when the name has no letters or numbers")
+    void searchThrowsBadRequestExceptionWhenTheNameHasNoLettersOrNumbers() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.search(" ?! ", AnimeSearchMode.EXACT, PageRequest.of(0, 1)));
+    }
+
     @Test
     @DisplayName("findByIdOrThrowBadRequestException returns anime when sucessful")
     void findByIdOrThrowBadRequestExceptionReturnsAnimeWhenSuccessful() {
@@ -137,16 +288,16 @@ class AnimeServiceTest {
         String expectedName = AnimeCreator.createValidAnime().getName();
 
         // procurando um nome de anime
-        List<Anime> animes = animeService.findByName("anime");
+        Slice<AnimeResponse> animeSlice = animeService.findByName("anime", PageRequest.of(0, 20));
 
         // verificando se o anime não é nulo, vazio e possui um
-        Assertions.assertThat(animes)
+        Assertions.assertThat(animeSlice.getContent())
                 .isNotNull()
                 .isNotEmpty()
                 .hasSize(1);
 
         // verifica se o nome é existente
-        Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
+        Assertions.assertThat(animeSlice.getContent().get(0).getName()).isEqualTo(expectedName);
     }
 
     @Test
@@ -154,14 +305,14 @@ class AnimeServiceTest {
     void findByNameReturnsEmptyListOfAnimeWhenAnimeIsNotFound() {
         /* quando executar o metodo findByName com qualquer tipo de
          * string retorna um lista vazia. */
-        BDDMockito.when(animeRepositoryMock.findByName(ArgumentMatchers.anyString()))
-                .thenReturn(Collections.emptyList());
+        BDDMockito.when(animeRepositoryMock.findByName(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
 
         // procurando um nome de anime
-        List<Anime> animes = animeService.findByName("anime");
+        Slice<AnimeResponse> animeSlice = animeService.findByName("anime", PageRequest.of(0, 20));
 
         // verificando se o nome de anime é nulo e vazio
-        Assertions.assertThat(animes)
+        Assertions.assertThat(animeSlice.getContent())
                 .isNotNull()
                 .isEmpty();
     }
@@ -176,6 +327,12 @@ class AnimeServiceTest {
         Assertions.assertThat(anime)
                 .isNotNull()
                 .isEqualTo(AnimeCreator.createValidAnime());
+
+        // o índice de sugestões é avisado do novo anime
+        Mockito.verify(applicationEventPublisherMock)
+                .publishEvent(new AnimeChangedEvent(anime.getId(), anime.getName()));
+        // as palavras do nome são gravadas para a busca FULL_TEXT
+        Mockito.verify(animeSearchTokenRepositoryMock).insertAll(Map.of(anime.getId(), anime.getName()));
     }
 
     @Test
@@ -186,4 +343,40 @@ class AnimeServiceTest {
                 .doesNotThrowAnyException();
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("replace throws ConflictException when the version of the request is outdated")
+    void replaceThrowsConflictExceptionWhenTheVersionIsOutdated() {
+        AnimePutRequestBody animePutRequestBody = AnimePutRequestBodyCreator.createAnimePutRequestBody();
+        animePutRequestBody.setVersion(AnimeCreator.createValidAnime().getVersion() + 1);
+
+        Assertions.assertThatExceptionOfType(ConflictException.class)
+                .isThrownBy(() -> animeService.replace(animePutRequestBody));
+        Mockito.verify(animeRepositoryMock, Mockito.never()).saveAndFlush(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("replace retries the update without version when another transaction changed the anime")
+    void replaceRetriesTheUpdateWithoutVersionWhenAnotherTransactionChangedTheAnime() {
+        // a primeira tentativa perde a disputa, a segunda salva
+        BDDMockito.when(animeRepositoryMock.saveAndFlush(ArgumentMatchers.any(Anime.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Anime.class, 1L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Assertions.assertThatCode(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()))
+                .doesNotThrowAnyException();
+        Mockito.verify(animeRepositoryMock, Mockito.times(2)).saveAndFlush(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("replace throws ConflictException when every attempt loses to another transaction")
+    void replaceThrowsConflictExceptionWhenEveryAttemptLosesToAnotherTransaction() {
+        BDDMockito.when(animeRepositoryMock.saveAndFlush(ArgumentMatchers.any(Anime.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Anime.class, 1L));
+
+        Assertions.assertThatExceptionOfType(ConflictException.class)
+                .isThrownBy(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()));
+        Mockito.verify(animeRepositoryMock, Mockito.times(AnimeService.MAXIMUM_REPLACE_ATTEMPTS))
+                .saveAndFlush(ArgumentMatchers.any());
+    }
+
+}
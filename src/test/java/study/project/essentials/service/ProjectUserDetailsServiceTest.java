@@ -0,0 +1,82 @@
+package study.project.essentials.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import study.project.essentials.config.CacheConfig;
+import study.project.essentials.domain.ProjectUser;
+import study.project.essentials.repository.ProjectUserRepository;
+
+// carregando somente o cache e o service para validar o @Cacheable
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {CacheConfig.class, ProjectUserDetailsService.class})
+@TestPropertySource(properties = "essentials.cache.specs.projectUsers=maximumSize=10,recordStats")
+class ProjectUserDetailsServiceTest {
+
+    @Autowired
+    private ProjectUserDetailsService projectUserDetailsService;
+
+    @MockBean
+    private ProjectUserRepository projectUserRepositoryMock;
+
+    private static final ProjectUser USER = ProjectUser.builder()
+            .name("Lon Hammond")
+            .password("{bcrypt}$2a$10$p6/kb8QCnI08fibnlUcdhOlntgM8fwu3NGSNfHfIDYgSQ.zriZakK")
+            .username("Lon")
+            .authorities("ROLE_USER")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        // limpando o cache entre os testes
+        projectUserDetailsService.evictAllUsers();
+
+        BDDMockito.when(projectUserRepositoryMock.findByUsername("Lon"))
+                .thenReturn(USER);
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername returns user from cache when called twice")
+    void loadUserByUsernameReturnsUserFromCacheWhenCalledTwice() {
+        UserDetails first = projectUserDetailsService.loadUserByUsername("Lon");
+        UserDetails second = projectUserDetailsService.loadUserByUsername("Lon");
+
+        Assertions.assertThat(first).isNotNull().isSameAs(second);
+
+        // o banco de dados foi consultado somente uma vez
+        Mockito.verify(projectUserRepositoryMock, Mockito.times(1)).findByUsername("Lon");
+    }
+
+    @Test
+    @DisplayName("evictUser forces the user to be loaded again from the database")
+    void evictUserForcesTheUserToBeLoadedAgain() {
+        projectUserDetailsService.loadUserByUsername("Lon");
+        projectUserDetailsService.evictUser("Lon");
+        projectUserDetailsService.loadUserByUsername("Lon");
+
+        Mockito.verify(projectUserRepositoryMock, Mockito.times(2)).findByUsername("Lon");
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername throws UsernameNotFoundException when user is not found")
+    void loadUserByUsernameThrowsUsernameNotFoundExceptionWhenUserIsNotFound() {
+        BDDMockito.when(projectUserRepositoryMock.findByUsername(ArgumentMatchers.anyString()))
+                .thenReturn(null);
+
+        Assertions.assertThatExceptionOfType(UsernameNotFoundException.class)
+                .isThrownBy(() -> projectUserDetailsService.loadUserByUsername("Tyler"));
+    }
+
+}
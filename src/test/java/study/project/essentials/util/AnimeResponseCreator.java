@@ -0,0 +1,15 @@
+package study.project.essentials.util;
+
+import study.project.essentials.responses.AnimeResponse;
+
+public class AnimeResponseCreator {
+
+    // quando o metodo for chamado a projeção tem os mesmos dados do anime valido
+    public static AnimeResponse createValidAnimeResponse() {
+        return AnimeResponse.builder()
+                .name(AnimeCreator.createValidAnime().getName())
+                .id(AnimeCreator.createValidAnime().getId())
+                .build();
+    }
+
+}
@@ -0,0 +1,34 @@
+-- tabelas criadas pelo hibernate no modo servlet, usadas pelo ReactiveAnimeControllerIT (perfil reactive)
+drop table if exists anime;
+drop table if exists anime_search_token;
+drop table if exists project_user;
+drop sequence if exists anime_seq;
+
+create sequence anime_seq start with 1 increment by 50;
+
+create table anime (
+    id bigint not null,
+    name varchar(255),
+    search_name varchar(255),
+    updated_at timestamp,
+    version bigint not null,
+    primary key (id)
+);
+create index idx_anime_name on anime (name);
+create index idx_anime_search_name on anime (search_name);
+
+create table anime_search_token (
+    anime_id bigint not null,
+    token varchar(255) not null,
+    primary key (anime_id, token)
+);
+create index idx_anime_search_token on anime_search_token (token, anime_id);
+
+create table project_user (
+    id bigint generated by default as identity,
+    authorities varchar(255),
+    name varchar(255),
+    password varchar(255),
+    username varchar(255),
+    primary key (id)
+);